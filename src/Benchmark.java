@@ -0,0 +1,338 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Keeps track of a micro-benchmark suite for the engine: the move generation
+ * of each Piece subclass on the Square[][] board, the legal targets of the
+ * pieces the Board shows, the evaluation of a Position, the search to
+ * depths 2 to 5 and the make and unmake round trip, each on a fixed set of
+ * positions. Like a JMH benchmark, each one is run for a number of warm up
+ * iterations so that it is compiled before it is measured, then for a number
+ * of measured iterations of a fixed time, and its results are consumed so
+ * that they cannot be optimized away. The time per operation is reported with
+ * its spread across iterations, along with the bytes allocated per operation
+ * by the benchmark thread and the number and time of garbage collections, so
+ * that both slowdowns and new allocations show up. Includes methods to run
+ * all the benchmarks (or those whose names contain a given filter) from the
+ * command line, to measure a single benchmark, and to set up the board of
+ * Squares and Pieces for a Position
+ * @author Siddharth Vaknalli and Sean Marchand
+ * @version Sunday, October 18, 2026
+ */
+public class Benchmark
+{
+	// The positions every benchmark runs on, in Forsyth-Edwards Notation: the
+	// starting position, two middle games and an end game
+	private static final String[] POSITIONS = {
+			Position.STARTING_FEN,
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1" };
+
+	// The number of warm up and measured iterations of each benchmark, and the
+	// time each iteration runs for in nanoseconds
+	private static final int WARMUP_ITERATIONS = 5;
+	private static final int MEASURED_ITERATIONS = 10;
+	private static final long ITERATION_NANOS = 200000000L;
+
+	// The size in megabytes of the transposition table of the search
+	// benchmarks, which is cleared before each search so that every search
+	// does the same work
+	private static final int SEARCH_HASH_MB = 1;
+
+	// Keep track of a value depending on the result of every operation, so
+	// that the work of the benchmarks cannot be removed by the compiler
+	private static volatile long sink;
+
+	/**
+	 * An operation measured by a benchmark
+	 */
+	private interface Operation
+	{
+		/**
+		 * Runs the operation once
+		 * @return a value depending on the result of the operation
+		 */
+		long run();
+	}
+
+	/**
+	 * Runs all the benchmarks, or only those whose names contain the first
+	 * argument
+	 * @param args the arguments of the program: an optional filter
+	 */
+	public static void main(String[] args)
+	{
+		String filter = args.length > 0 ? args[0] : "";
+
+		// Set up each position both as a Position and as a board of Squares
+		final Position[] positions = new Position[POSITIONS.length];
+		final Square[][][] boards = new Square[POSITIONS.length][][];
+		for (int next = 0; next < POSITIONS.length; next++)
+		{
+			positions[next] = new Position();
+			positions[next].setFen(POSITIONS[next]);
+			boards[next] = createBoard(positions[next]);
+		}
+
+		System.out.printf("%-36s %14s %12s %14s %8s %8s%n", "Benchmark",
+				"ns/op", "+/-", "bytes/op", "gc", "gc ms");
+
+		// Generate the moves of every piece of each subclass of Piece
+		String[] pieceNames = { "Pawn", "Knight", "Bishop", "Rook", "Queen",
+				"King" };
+		for (int type = Position.PAWN; type <= Position.KING; type++)
+		{
+			final int pieceType = type;
+			measure("generateMoves." + pieceNames[type], filter, new Operation()
+			{
+				@Override
+				public long run()
+				{
+					long total = 0;
+					for (int next = 0; next < boards.length; next++)
+						for (Square[] row : boards[next])
+							for (Square square : row)
+								if (square.piece != null && positions[next]
+										.pieceAt(square.row * 8
+												+ square.column) == pieceType)
+									total += square.piece.generateMoves(
+											boards[next]).size();
+					return total;
+				}
+			});
+		}
+
+		// Find the Squares every piece of the side to move can legally move to
+		// from the legal moves of the Position, as the Board does when a piece
+		// is selected
+		final Engine engine = new Engine(SEARCH_HASH_MB, 1, false);
+		measure("legalTargets", filter, new Operation()
+		{
+			@Override
+			public long run()
+			{
+				long total = 0;
+				for (int next = 0; next < boards.length; next++)
+				{
+					engine.getPosition().copyFrom(positions[next]);
+					engine.generateLegalMoves();
+					for (Square[] row : boards[next])
+						for (Square square : row)
+							if (square.piece != null
+									&& square.piece.color == positions[next]
+											.getSideToMove())
+								total += Long.bitCount(engine
+										.getLegalTargets(square.row * 8
+												+ square.column));
+				}
+				return total;
+			}
+		});
+
+		measure("evaluate", filter, new Operation()
+		{
+			@Override
+			public long run()
+			{
+				long total = 0;
+				for (Position position : positions)
+					total += Evaluation.evaluate(position);
+				return total;
+			}
+		});
+
+		// Make and unmake every legal move of each position
+		final int[] moves = new int[Position.MAX_MOVES];
+		measure("makeUnmake", filter, new Operation()
+		{
+			@Override
+			public long run()
+			{
+				long total = 0;
+				for (Position position : positions)
+				{
+					int count = position.generateLegalMoves(moves);
+					for (int next = 0; next < count; next++)
+					{
+						position.makeMove(moves[next]);
+						total += position.getKey();
+						position.unmakeMove(moves[next]);
+					}
+				}
+				return total;
+			}
+		});
+
+		// Search each position to a fixed depth on a single thread
+		final Search search = new Search(SEARCH_HASH_MB);
+		for (int depth = 2; depth <= 5; depth++)
+		{
+			final int searchDepth = depth;
+			measure("search.depth" + depth, filter, new Operation()
+			{
+				@Override
+				public long run()
+				{
+					long total = 0;
+					for (Position position : positions)
+					{
+						search.clearHash();
+						search.prepare();
+						total += search.findBestMove(position, searchDepth,
+								Search.INFINITE_TIME);
+					}
+					return total;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Measures the given operation, if its name contains the given filter,
+	 * and prints the mean time per operation and its spread across the
+	 * measured iterations, the bytes allocated per operation and the number
+	 * and total time of garbage collections while it was measured
+	 * @param name the name of the benchmark
+	 * @param filter the text the names of the benchmarks to run contain
+	 * @param operation the operation to measure
+	 */
+	private static void measure(String name, String filter,
+			Operation operation)
+	{
+		if (!name.contains(filter))
+			return;
+		for (int next = 0; next < WARMUP_ITERATIONS; next++)
+			runIteration(operation);
+
+		com.sun.management.ThreadMXBean threads =
+				(com.sun.management.ThreadMXBean) ManagementFactory
+						.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long gcCountBefore = gcCount();
+		long gcTimeBefore = gcTime();
+		long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+		long totalOperations = 0;
+		double[] nanosPerOperation = new double[MEASURED_ITERATIONS];
+		for (int next = 0; next < MEASURED_ITERATIONS; next++)
+		{
+			long start = System.nanoTime();
+			long operations = runIteration(operation);
+			nanosPerOperation[next] = (System.nanoTime() - start)
+					/ (double) operations;
+			totalOperations += operations;
+		}
+		long allocated = threads.getThreadAllocatedBytes(threadId)
+				- allocatedBefore;
+
+		// Report the mean time per operation with the standard deviation of
+		// the measured iterations
+		double mean = 0;
+		for (double nanos : nanosPerOperation)
+			mean += nanos / MEASURED_ITERATIONS;
+		double variance = 0;
+		for (double nanos : nanosPerOperation)
+			variance += (nanos - mean) * (nanos - mean)
+					/ (MEASURED_ITERATIONS - 1);
+		System.out.printf("%-36s %14.1f %12.1f %14.1f %8d %8d%n", name, mean,
+				Math.sqrt(variance), allocated / (double) totalOperations,
+				gcCount() - gcCountBefore, gcTime() - gcTimeBefore);
+	}
+
+	/**
+	 * Runs the given operation repeatedly for the time of one iteration
+	 * @param operation the operation to run
+	 * @return the number of times the operation was run
+	 */
+	private static long runIteration(Operation operation)
+	{
+		long end = System.nanoTime() + ITERATION_NANOS;
+		long operations = 0;
+		long result = 0;
+		do
+		{
+			result += operation.run();
+			operations++;
+		}
+		while (System.nanoTime() < end);
+		sink += result;
+		return operations;
+	}
+
+	/**
+	 * Gets the number of garbage collections since the program started
+	 * @return the number of garbage collections
+	 */
+	private static long gcCount()
+	{
+		long count = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory
+				.getGarbageCollectorMXBeans())
+			count += Math.max(0, collector.getCollectionCount());
+		return count;
+	}
+
+	/**
+	 * Gets the time spent in garbage collections since the program started
+	 * @return the time of garbage collections in milliseconds
+	 */
+	private static long gcTime()
+	{
+		long time = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory
+				.getGarbageCollectorMXBeans())
+			time += Math.max(0, collector.getCollectionTime());
+		return time;
+	}
+
+	/**
+	 * Creates a board of Squares holding the Pieces of the given Position, as
+	 * the Board would hold them. Pawns are moved by their color rather than
+	 * by the row they start on, and have moved unless they are on their
+	 * starting row
+	 * @param position the Position to create the board of
+	 * @return the board of Squares
+	 */
+	public static Square[][] createBoard(Position position)
+	{
+		Square[][] board = new Square[8][8];
+		for (int row = 0; row < 8; row++)
+			for (int column = 0; column < 8; column++)
+			{
+				board[row][column] = new Square(row, column, (row + column) % 2,
+						null);
+				int square = row * 8 + column;
+				int color = position.colorAt(square);
+				Piece piece;
+				switch (position.pieceAt(square))
+				{
+				case Position.PAWN:
+					Pawn pawn = new Pawn(row, column, color, true);
+					pawn.onOppositeSide = color == Position.BLACK;
+					piece = pawn;
+					break;
+				case Position.KNIGHT:
+					piece = new Knight(row, column, color);
+					break;
+				case Position.BISHOP:
+					piece = new Bishop(row, column, color);
+					break;
+				case Position.ROOK:
+					piece = new Rook(row, column, color);
+					break;
+				case Position.QUEEN:
+					piece = new Queen(row, column, color);
+					break;
+				case Position.KING:
+					piece = new King(row, column, color);
+					break;
+				default:
+					continue;
+				}
+				board[row][column].addPiece(piece, false);
+				piece.hasMoved = piece instanceof Pawn
+						&& row != (color == Position.WHITE ? 6 : 1);
+			}
+		return board;
+	}
+}
@@ -1,5 +1,4 @@
 import java.util.ArrayList;
-import javax.swing.ImageIcon;
 
 /**
  * The Bishop piece for a chess game The Bishop class allows the piece to get
@@ -13,18 +12,7 @@ public class Bishop extends Piece
 	private static final long serialVersionUID = 1L;
 	// The value of the Bishop relative to the other pieces (normally a bishop
 	// is worth 3 points)
-	public static int value = 350;
-	// The Bishop can lose or gain points depending on its board position
-	// In general, it is good to keep your Bishops in the centre, but not
-	// Totally crucial
-	private static int[][] bishopScoreTable = {
-			{ -20, -10, -10, -10, -10, -10, -10, -20 },
-			{ -10, 0, 0, 0, 0, 0, 0, -10 }, { -10, 0, 5, 10, 10, 5, 0, -10 },
-			{ -10, 5, 5, 10, 10, 5, 5, -10 },
-			{ -10, 0, 10, 10, 10, 10, 0, -10 },
-			{ -10, 10, 10, 10, 10, 10, 10, -10 },
-			{ -10, 5, 0, 0, 0, 0, 5, -10 },
-			{ -20, -10, -40, -10, -10, -40, -10, -20 } };
+	public final int value = Evaluation.PIECE_VALUES[Position.BISHOP];
 
 	/**
 	 * Constructs a Bishop Object
@@ -35,9 +23,8 @@ public class Bishop extends Piece
 	 */
 	public Bishop(int row, int column, int color)
 	{
-		super(row, column, color, color == 0 ? new ImageIcon(
-				"Temp\\Bishop0.png").getImage() : new ImageIcon(
-				"Temp\\Bishop1.png").getImage());
+		super(row, column, color, getImage(color == 0 ? "Temp\\Bishop0.png"
+				: "Temp\\Bishop1.png"));
 	}
 
 	/**
@@ -47,15 +34,8 @@ public class Bishop extends Piece
 	 */
 	public int getValue()
 	{
-		// If the Bishop is white, the score will be the usual position of the
-		// Score table
-		if (this.color == 0)
-		{
-			return value + bishopScoreTable[this.row][this.column];
-		}
-		// If the Bishop is black, we can use the same score table by simply
-		// Changing the row we score with
-		return value + bishopScoreTable[7 - this.row][this.column];
+		return value
+				+ Evaluation.squareScore(Position.BISHOP, color, row, column);
 	}
 
 	/**
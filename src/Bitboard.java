@@ -0,0 +1,209 @@
+/**
+ * Keeps track of the precomputed attack tables used by the bitboard Position
+ * of a Chess game. A bitboard is a 64 bit long in which each bit represents one
+ * Square of the board. Square indices follow the layout of the Square[][]
+ * board in the Board class, so index (row * 8 + column) with row 0 being the
+ * back row of the black pieces. Includes methods to get the attacks of each
+ * type of piece from a given Square and to iterate over the bits of a bitboard
+ * @author Siddharth Vaknalli and Sean Marchand
+ * @version Sunday, October 18, 2026
+ */
+public final class Bitboard
+{
+	// Attacks of the Knight and the King from each Square, and of the Pawns of
+	// each color from each Square
+	public static final long[] KNIGHT_ATTACKS = new long[64];
+	public static final long[] KING_ATTACKS = new long[64];
+	public static final long[][] PAWN_ATTACKS = new long[2][64];
+
+	// Rays from each Square in each of the eight directions. The first four
+	// directions increase the Square index, the last four decrease it
+	private static final int[] DIRECTION_ROW = { 0, 1, 1, 1, 0, -1, -1, -1 };
+	private static final int[] DIRECTION_COL = { 1, -1, 0, 1, -1, 1, 0, -1 };
+	private static final long[][] RAYS = new long[8][64];
+
+	// The Squares strictly between two Squares on the same row, column or
+	// diagonal, and the whole line through both of them (empty bitboards if
+	// the Squares do not share a line)
+	public static final long[][] BETWEEN = new long[64][64];
+	public static final long[][] LINE = new long[64][64];
+
+	// Indices of the straight (Rook) and diagonal (Bishop) directions
+	private static final int[] STRAIGHT = { 0, 2, 4, 6 };
+	private static final int[] DIAGONAL = { 1, 3, 5, 7 };
+
+	static
+	{
+		// Offsets of the Knight and King moves
+		int[] knightRow = { -2, -2, -1, -1, 1, 1, 2, 2 };
+		int[] knightCol = { -1, 1, -2, 2, -2, 2, -1, 1 };
+		int[] kingRow = { -1, -1, -1, 0, 0, 1, 1, 1 };
+		int[] kingCol = { -1, 0, 1, -1, 1, -1, 0, 1 };
+
+		for (int square = 0; square < 64; square++)
+		{
+			int row = square >> 3;
+			int column = square & 7;
+
+			for (int next = 0; next < 8; next++)
+			{
+				KNIGHT_ATTACKS[square] |= bit(row + knightRow[next], column
+						+ knightCol[next]);
+				KING_ATTACKS[square] |= bit(row + kingRow[next], column
+						+ kingCol[next]);
+			}
+
+			// White Pawns move up the board (towards row 0) and black Pawns
+			// move down the board
+			PAWN_ATTACKS[0][square] = bit(row - 1, column - 1)
+					| bit(row - 1, column + 1);
+			PAWN_ATTACKS[1][square] = bit(row + 1, column - 1)
+					| bit(row + 1, column + 1);
+
+			// Walk each direction from the Square until the edge of the board
+			for (int direction = 0; direction < 8; direction++)
+			{
+				int checkRow = row + DIRECTION_ROW[direction];
+				int checkCol = column + DIRECTION_COL[direction];
+				while (checkRow >= 0 && checkRow < 8 && checkCol >= 0
+						&& checkCol < 8)
+				{
+					RAYS[direction][square] |= 1L << (checkRow * 8 + checkCol);
+					checkRow += DIRECTION_ROW[direction];
+					checkCol += DIRECTION_COL[direction];
+				}
+			}
+		}
+
+		// The opposite of each direction is four directions away
+		for (int square = 0; square < 64; square++)
+			for (int direction = 0; direction < 8; direction++)
+			{
+				long ray = RAYS[direction][square];
+				long line = ray | RAYS[(direction + 4) & 7][square]
+						| (1L << square);
+				long targets = ray;
+				while (targets != 0)
+				{
+					int target = first(targets);
+					targets &= targets - 1;
+					BETWEEN[square][target] = ray & ~RAYS[direction][target]
+							& ~(1L << target);
+					LINE[square][target] = line;
+				}
+			}
+	}
+
+	/**
+	 * Bitboard is a holder of static tables and cannot be constructed
+	 */
+	private Bitboard()
+	{
+	}
+
+	/**
+	 * Gets the bitboard with only the bit of the given row and column set, or
+	 * an empty bitboard if the row and column are off the board
+	 * @param row the row of the Square
+	 * @param column the column of the Square
+	 * @return the bitboard of the Square at the given row and column
+	 */
+	private static long bit(int row, int column)
+	{
+		if (row < 0 || row > 7 || column < 0 || column > 7)
+			return 0L;
+		return 1L << (row * 8 + column);
+	}
+
+	/**
+	 * Gets the attacks along a single ray from the given Square, stopping at
+	 * (and including) the first occupied Square on the ray
+	 * @param direction the index of the direction of the ray
+	 * @param square the Square the ray starts from
+	 * @param occupied the bitboard of all occupied Squares
+	 * @return the bitboard of Squares attacked along the ray
+	 */
+	private static long rayAttacks(int direction, int square, long occupied)
+	{
+		long ray = RAYS[direction][square];
+		long blockers = ray & occupied;
+		if (blockers != 0)
+		{
+			// The first blocker is the nearest one: the lowest bit for rays
+			// that increase the index, the highest bit for the others
+			int blocker = direction < 4 ? Long.numberOfTrailingZeros(blockers)
+					: 63 - Long.numberOfLeadingZeros(blockers);
+			ray ^= RAYS[direction][blocker];
+		}
+		return ray;
+	}
+
+	/**
+	 * Gets the Squares attacked by a Rook on the given Square
+	 * @param square the Square of the Rook
+	 * @param occupied the bitboard of all occupied Squares
+	 * @return the bitboard of Squares attacked by the Rook
+	 */
+	public static long rookAttacks(int square, long occupied)
+	{
+		long attacks = 0L;
+		for (int direction : STRAIGHT)
+			attacks |= rayAttacks(direction, square, occupied);
+		return attacks;
+	}
+
+	/**
+	 * Gets the Squares attacked by a Bishop on the given Square
+	 * @param square the Square of the Bishop
+	 * @param occupied the bitboard of all occupied Squares
+	 * @return the bitboard of Squares attacked by the Bishop
+	 */
+	public static long bishopAttacks(int square, long occupied)
+	{
+		long attacks = 0L;
+		for (int direction : DIAGONAL)
+			attacks |= rayAttacks(direction, square, occupied);
+		return attacks;
+	}
+
+	/**
+	 * Gets the Squares attacked by a Queen on the given Square
+	 * @param square the Square of the Queen
+	 * @param occupied the bitboard of all occupied Squares
+	 * @return the bitboard of Squares attacked by the Queen
+	 */
+	public static long queenAttacks(int square, long occupied)
+	{
+		return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+	}
+
+	/**
+	 * Gets the index of the lowest set bit of the given bitboard
+	 * @param bitboard the bitboard, which must not be empty
+	 * @return the index of the lowest Square in the bitboard
+	 */
+	public static int first(long bitboard)
+	{
+		return Long.numberOfTrailingZeros(bitboard);
+	}
+
+	/**
+	 * Gets the row of the given Square index
+	 * @param square the Square index
+	 * @return the row of the Square
+	 */
+	public static int row(int square)
+	{
+		return square >> 3;
+	}
+
+	/**
+	 * Gets the column of the given Square index
+	 * @param square the Square index
+	 * @return the column of the Square
+	 */
+	public static int column(int square)
+	{
+		return square & 7;
+	}
+}
@@ -15,6 +15,7 @@ import java.util.LinkedList;
 import javax.swing.ImageIcon;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 /**
  * Keeps track of a Board class for a game of Chess. It extends the JPanel
@@ -28,10 +29,10 @@ import javax.swing.JPanel;
  * the JFrame class that contains it, to start a new game of chess, to check if
  * the board or a particular Square contains a Piece, to draw all the different
  * screens, panels and all the Squares and Pieces if a game is in progress. Also
- * contains methods to make a computer move if playing versus the computer, to
- * evaluate the board based on the positions of all Pieces on the board, and to
- * calculate the best possible moves that the computer can make according to the
- * color it plays by looking ahead of the user's moves. Further includes methods
+ * contains methods to play each move on the bitboard Position of the game,
+ * which decides the legal moves and on which the computer calculates the best
+ * possible moves it can make according to the color it plays by looking ahead
+ * of the user's moves, and to show it on the Squares. Further includes methods
  * to undo moves made in a game, to check if moves can be undone, to check if
  * the game can be drawn and to check if the current game has ended by win or
  * draw. Finally, includes methods to check where the mouse has been clicked or
@@ -57,8 +58,25 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 	public static final int HEIGHT = 700;
 	private final Color BG_COLOR = new Color(156, 130, 82);
 	private static final int ANIMATION_FRAMES = 5;
-	private static int turn = 1;
-	private static String[] endGameTypes = { "Checkmate", "Stalemate" };
+	private static final int HASH_SIZE_MB = 16;
+
+	// The number of threads the computer searches on, one for each processor,
+	// and whether they search in Lazy SMP mode rather than splitting the root
+	// moves between them
+	private static final int SEARCH_THREADS = Runtime.getRuntime()
+			.availableProcessors();
+	private static final boolean SEARCH_LAZY_SMP = true;
+
+	// Whether the statistics of each search of the computer are logged to
+	// standard output, to tune the difficulty levels
+	private static final boolean LOG_SEARCH = false;
+
+	// The most moves the computer looks ahead and the time in milliseconds it
+	// thinks for on each difficulty (easy, medium, hard and very hard)
+	private static final int[] AI_MAX_DEPTHS = { 2, 3, Search.MAX_DEPTH,
+			Search.MAX_DEPTH };
+	private static final long[] AI_MOVE_TIMES = { 250, 500, 1500, 3000 };
+	private static final String[] endGameTypes = { "Checkmate", "Stalemate" };
 
 	// Keep track of images for the screens and panels
 	private final Image twoPlayerPanel = new ImageIcon(
@@ -97,7 +115,7 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 	private boolean difficultyScreen;
 	private boolean colorChoiceScreen;
 	private boolean vsComputerScreen;
-	public static boolean twoPlayerScreen;
+	private boolean twoPlayerScreen;
 
 	// Variables for the chess game
 	private ChessMain chessFrame;
@@ -108,17 +126,22 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 	private ArrayList<Square> movesGenerated;
 	private ArrayList<Piece> capturedPieces;
 	private boolean gameOver;
+	private int turn;
 	private String endGameType;
 	private boolean moveUndone;
 	private boolean drawCalled;
 
-	// Variables for the computer AI component
-	private Piece miniBestPiece;
-	private Square miniBestSourceSquare;
-	private Square miniBestMove;
-	private Piece maxiBestPiece;
-	private Square maxiBestSourceSquare;
-	private Square maxiBestMove;
+	// Variables for the computer AI component. The headless Engine holds the
+	// bitboard Position of the game, which every move is played on before the
+	// Squares of the board show it and which gives the legal moves of the
+	// pieces, and searches it on its own thread so that the board stays
+	// responsive. Keep track of whether the computer is thinking and a number
+	// identifying its search, so that the result of a cancelled search is
+	// never played
+	private Engine engine;
+	private Position position;
+	private boolean computerThinking;
+	private int computerSearchId;
 	private int aiDifficulty;
 	private int playerColor;
 	private boolean playerMoveMade;
@@ -207,8 +230,13 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 		mainScreen = true;
 		vsComputerScreen = false;
 		twoPlayerScreen = false;
+		turn = 1;
 		capturedPieces = new ArrayList<Piece>();
 		moves = new LinkedList<Move>();
+		engine = new Engine(HASH_SIZE_MB, SEARCH_THREADS, SEARCH_LAZY_SMP);
+		position = engine.getPosition();
+		if (LOG_SEARCH)
+			engine.getSearch().setLog(System.out);
 	}
 
 	/**
@@ -219,6 +247,9 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 	 */
 	public void newGame()
 	{
+		// Stop the computer from playing a move of the previous game
+		cancelComputerMove();
+
 		// Read the stored statistics of the previous games from a file
 		Statistics.readFromFile("stats.dat").newGame();
 
@@ -236,13 +267,8 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 		moveUndone = false;
 		drawCalled = false;
 
-		// Reset all the computer move variables (for the AI component)
-		miniBestPiece = null;
-		miniBestSourceSquare = null;
-		miniBestMove = null;
-		maxiBestPiece = null;
-		maxiBestSourceSquare = null;
-		maxiBestMove = null;
+		// Forget the Positions searched by the computer in the previous game
+		engine.newGame();
 
 		// Since no moves has been made yet, the undo option of the JFrame must
 		// be set to false
@@ -263,11 +289,12 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 		board[0][6].addPiece(new Knight(0, 6, 1), false);
 		board[0][7].addPiece(new Rook(0, 7, 1), false);
 
+		// Pawns can only capture en passant in a two player game
 		for (int col = 0; col < board[0].length; col++)
-			board[1][col].addPiece(new Pawn(1, col, 1), false);
+			board[1][col].addPiece(new Pawn(1, col, 1, twoPlayerScreen), false);
 
 		for (int col = 0; col < board[0].length; col++)
-			board[6][col].addPiece(new Pawn(6, col, 0), false);
+			board[6][col].addPiece(new Pawn(6, col, 0, twoPlayerScreen), false);
 
 		board[7][0].addPiece(new Rook(7, 0, 0), false);
 		board[7][1].addPiece(new Knight(7, 1, 0), false);
@@ -422,26 +449,19 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 						MESSAGEBAR_X, MESSAGEBAR_Y);
 			else if (!gameOver)
 			{
+				// The Position of the game shows whether either King is in
+				// check
 				boolean kingInCheck = false;
-				for (int row = 0; row < board.length; row++)
-					for (int col = 0; col < board[row].length; col++)
+				for (int color = Position.WHITE; color <= Position.BLACK; color++)
+					if (position.inCheck(color))
 					{
-						Square square = board[row][col];
-						if (square.containsPiece()
-								&& square.piece instanceof King)
-						{
-							King king = (King) square.piece;
-							if (king.inCheck())
-							{
-								if (king.color == 0)
-									g.drawString("White King in Check!",
-											MESSAGEBAR_X, MESSAGEBAR_Y);
-								else
-									g.drawString("Black King in Check!",
-											MESSAGEBAR_X, MESSAGEBAR_Y);
-								kingInCheck = true;
-							}
-						}
+						if (color == Position.WHITE)
+							g.drawString("White King in Check!", MESSAGEBAR_X,
+									MESSAGEBAR_Y);
+						else
+							g.drawString("Black King in Check!", MESSAGEBAR_X,
+									MESSAGEBAR_Y);
+						kingInCheck = true;
 					}
 
 				if (!kingInCheck && turn == 1)
@@ -541,26 +561,19 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 			// is not over. Also, display whose turn it is (if possible)
 			if (!gameOver)
 			{
+				// The Position of the game shows whether either King is in
+				// check
 				boolean kingInCheck = false;
-				for (int row = 0; row < board.length; row++)
-					for (int col = 0; col < board[row].length; col++)
+				for (int color = Position.WHITE; color <= Position.BLACK; color++)
+					if (position.inCheck(color))
 					{
-						Square square = board[row][col];
-						if (square.containsPiece()
-								&& square.piece instanceof King)
-						{
-							King king = (King) square.piece;
-							if (king.inCheck())
-							{
-								if (king.color == 0)
-									g.drawString("White King in Check!",
-											MESSAGEBAR_X, MESSAGEBAR_Y);
-								else
-									g.drawString("Black King in Check!",
-											MESSAGEBAR_X, MESSAGEBAR_Y);
-								kingInCheck = true;
-							}
-						}
+						if (color == Position.WHITE)
+							g.drawString("White King in Check!", MESSAGEBAR_X,
+									MESSAGEBAR_Y);
+						else
+							g.drawString("Black King in Check!", MESSAGEBAR_X,
+									MESSAGEBAR_Y);
+						kingInCheck = true;
 					}
 
 				if (!kingInCheck && turn == 1)
@@ -605,111 +618,150 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 	}
 
 	/**
-	 * Makes a move of the computer when the user plays against the computer.
-	 * Moves the given piece from the original Square to the Square it is
-	 * supposed to be moved to. Also handles checking and un-checking kings,
-	 * castling and pawn promotion when the piece is moved
-	 * @param pieceToMove the computer Piece to move
-	 * @param from the original Square to move the Piece from
-	 * @param to the Square to move the Piece to Postcondition: The pieces on
-	 *            the board are not in their original positions
+	 * Plays the given legal move of the side to move on the Position of the
+	 * game, and then shows it on the Squares of the board: moves the Piece,
+	 * removes any Piece it captures (the Pawn it passes when capturing en
+	 * passant), moves the Rook when castling and promotes a Pawn to the piece
+	 * given by the move. Also adds the move to the List of moves made
+	 * @param move the move to play, as an integer of the Position class
+	 *            Postcondition: The pieces on the board are not in their
+	 *            original positions
 	 */
-	public void makeComputerMove(Piece pieceToMove, Square from, Square to)
+	private void playMove(int move)
 	{
+		// Keep track of the Squares to move from and to, the Piece to move and
+		// the Square of any Piece it captures, which for an en passant capture
+		// is the Square of the Pawn it passes
+		Square from = board[Bitboard.row(Position.from(move))][Bitboard
+				.column(Position.from(move))];
+		Square to = board[Bitboard.row(Position.to(move))][Bitboard
+				.column(Position.to(move))];
+		Piece pieceToMove = from.piece;
+		Square capturedSquare = to;
+		if ((move & Position.EN_PASSANT_FLAG) != 0)
+			capturedSquare = board[from.row][to.column];
+		position.makeMove(move);
+
 		// Remove the Piece to move from the original Square and add it to the
 		// Square to move to. Also, add any captured piece to the list of
 		// captured pieces
 		from.removePiece();
-		Piece capturedPiece = to.addPiece(pieceToMove,
-				false);
+		Piece capturedPiece = capturedSquare.removePiece();
 		if (capturedPiece != null)
 		{
 			capturedPiece.capture(capturedPieces);
 			capturedPieces.add(capturedPiece);
 		}
+		to.addPiece(pieceToMove, false);
 
-		// If the Piece is a King and moves two spaces, it must be castling.
-		// Move the Rook the King is castling with accordingly
-		if (pieceToMove instanceof King
-				&& Math.abs(from.column
-						- to.column) > 1)
+		// If the King is castling, move the Rook it castles with to the
+		// Square the King passes over
+		if ((move & Position.CASTLING_FLAG) != 0)
 		{
-			// Keep track of the Rook being castled with
-			Rook rook;
-
-			// Handle castling on the King side
-			if (to.column == 6
-					&& board[to.row][to.column + 1].piece instanceof Rook)
-			{
-				rook = (Rook) board[to.row][to.column + 1].piece;
-				board[rook.row][rook.column].removePiece();
-				board[to.row][to.column - 1].addPiece(
-						rook, false);
-				rook.castle(to.row, to.column + 1);
-			}
-
-			// Handle castling on the Queen side
-			else if (to.column == 2
-					&& board[to.row][to.column - 2].piece instanceof Rook)
-			{
-				rook = (Rook) board[to.row][to.column - 2].piece;
-				board[rook.row][rook.column].removePiece();
-				board[to.row][to.column + 1].addPiece(
-						rook, false);
-				rook.castle(to.row, to.column - 2);
-			}
-
+			Square rookSquare = board[to.row][to.column > from.column ? 7 : 0];
+			board[to.row][(from.column + to.column) / 2].addPiece(
+					rookSquare.removePiece(), false);
 		}
 
-		// If the piece being moved is a Pawn and is being moved to the back row
-		// of the opposite side, promote it to a Queen
-		if (pieceToMove instanceof Pawn && to.row == 7)
+		// If a Pawn is promoted, replace it with the piece given by the move
+		if (Position.isPromotion(move))
 		{
 			to.removePiece();
-			to.addPiece(new Queen(to.row,
-					to.column, 1), false);
+			to.addPiece(createPiece(Position.promotion(move), to.row,
+					to.column, pieceToMove.color), false);
 		}
 
-		// Generate further possible moves after moving the Piece to
-		// the Square to check if it checks the opponent King. If it does, check
-		// the opponent King
-		ArrayList<Square> nextMovesPossible = to.piece
-				.generateMoves(board);
-		for (Square movePossible : nextMovesPossible)
-			if (movePossible.containsOpponentKing(to.piece))
-			{
-				King kingToCheck = (King) movePossible.piece;
-				kingToCheck.check(to);
-			}
+		// Add the move made to the List of moves made
+		moves.addLast(new Move(from, to, pieceToMove, capturedPiece,
+				capturedSquare, move));
+	}
 
-		// Un-check each King if it is no longer in threat (handled
-		// in the uncheck () method in each King)
-		int kingsChecked = 0;
-		for (int row = 0; row < board.length && kingsChecked < 2; row++)
-			for (int col = 0; col < board[0].length
-					&& kingsChecked < 2; col++)
-			{
-				Square square = board[row][col];
-				if (square.containsPiece())
-				{
-					Piece piece = square.piece;
-					if (piece instanceof King)
-					{
-						King king = (King) piece;
-						king.uncheck(board);
-						kingsChecked++;
-					}
-				}
-			}
+	/**
+	 * Takes back the given move, which is the last move played, on the
+	 * Position of the game and on the Squares of the board, moving the Rook
+	 * back if the King castled
+	 * @param lastMove the last move played
+	 */
+	private void takeBackMove(Move lastMove)
+	{
+		int move = lastMove.getPositionMove();
+		position.unmakeMove(move);
+		lastMove.undo(capturedPieces);
+		if ((move & Position.CASTLING_FLAG) != 0)
+		{
+			Square from = lastMove.getSourceSquare();
+			Square to = lastMove.getMoveSquare();
+			board[to.row][to.column > from.column ? 7 : 0].addPiece(
+					board[to.row][(from.column + to.column) / 2]
+							.removePiece(), false);
+		}
+	}
 
-		// Add the move made to the List of moves made
-		moves.addLast(new Move(from, to,
-				pieceToMove, capturedPiece));
+	/**
+	 * Creates a Piece of the given Position type, such as the piece a Pawn is
+	 * promoted to
+	 * @param type the Position type of the piece (other than a Pawn or King)
+	 * @param row the row of the piece
+	 * @param column the column of the piece
+	 * @param color the color of the piece (0 for white, 1 for black)
+	 * @return the new Piece
+	 */
+	private static Piece createPiece(int type, int row, int column, int color)
+	{
+		if (type == Position.KNIGHT)
+			return new Knight(row, column, color);
+		if (type == Position.BISHOP)
+			return new Bishop(row, column, color);
+		if (type == Position.ROOK)
+			return new Rook(row, column, color);
+		return new Queen(row, column, color);
+	}
+
+	/**
+	 * Asks the user to choose the piece to promote a Pawn to
+	 * @return the Position type of the chosen piece
+	 */
+	private int choosePromotion()
+	{
+		String[] promotionChoices = { "Queen", "Knight", "Bishop", "Rook" };
+		int[] promotionTypes = { Position.QUEEN, Position.KNIGHT,
+				Position.BISHOP, Position.ROOK };
+		int promotionChoice = JOptionPane.showOptionDialog(chessFrame,
+				"Please choose the piece you wish to promote your pawn to",
+				"Promotion Piece Choices", JOptionPane.YES_NO_CANCEL_OPTION,
+				JOptionPane.QUESTION_MESSAGE, null, promotionChoices,
+				promotionChoices[0]);
+
+		// Closing the dialog promotes the Pawn to a Rook, as the last choice
+		if (promotionChoice < 0)
+			promotionChoice = promotionTypes.length - 1;
+		return promotionTypes[promotionChoice];
+	}
 
-		// Set the piece and the two squares to null
-		pieceToMove = null;
-		from = null;
-		to = null;
+	/**
+	 * Finds the legal move of the side to move from and to the given Squares
+	 * in the Position of the game, asking the user for the piece to promote
+	 * to if the move takes a Pawn to the last row
+	 * @param from the Square to move from
+	 * @param to the Square to move to, which the piece can legally move to
+	 * @return the legal move, as an integer of the Position class
+	 */
+	private int findPlayerMove(Square from, Square to)
+	{
+		int promotion = Position.EMPTY;
+		if (from.piece instanceof Pawn && (to.row == 0 || to.row == 7))
+			promotion = choosePromotion();
+
+		int move = 0;
+		for (int next = engine.generateLegalMoves() - 1; next >= 0; next--)
+		{
+			int legalMove = engine.getLegalMove(next);
+			if (Position.from(legalMove) == from.row * 8 + from.column
+					&& Position.to(legalMove) == to.row * 8 + to.column
+					&& Position.promotion(legalMove) == promotion)
+				move = legalMove;
+		}
+		return move;
 	}
 
 	/**
@@ -744,373 +796,72 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 	/**
 	 * Makes the computer play when the user plays against the computer
 	 * according to the color and difficulty chosen by the user, after looking
-	 * ahead of the user's moves
+	 * ahead of the user's moves. The search runs on the search thread, and its
+	 * move is played on the event thread once it is found, unless the search
+	 * is cancelled before then
 	 */
 	public void playComputer()
 	{
-		// long startTime = System.nanoTime();
-
-		// If the computer plays as black, look ahead of the user's moves and
-		// find the best possible move that can be made that minimizes the score
-		// of the board. Then, make the appropriate move
-		if (turn == -1)
-		{
-			alphaBetaMin(Integer.MIN_VALUE, Integer.MAX_VALUE, aiDifficulty);
-			makeComputerMove(miniBestPiece, miniBestSourceSquare, miniBestMove);
-		}
-
-		// If the computer plays as white, look ahead of the user's moves and
-		// find the best possible move that can be made that maximizes the score
-		// of the board. Then, make the appropriate move
-		else
-		{
-			alphaBetaMax(Integer.MIN_VALUE, Integer.MAX_VALUE, aiDifficulty);
-			makeComputerMove(maxiBestPiece, maxiBestSourceSquare, maxiBestMove);
-		}
-
-		// long endTime = System.nanoTime();
-		// System.out.printf("%nTime for computer move: %.3f s",
-		// (endTime - startTime) / 1000000000.0);
-
-		// Set the turn to the user
-		turn *= -1;
-
-		repaint();
-
-		playerMoveMade = false;
-	}
-
-	public int evaluate()
-	{
-		/*
-		 * // Create a copy of the current state of the board before making all
-		 * the // look ahead moves Square[][] currentBoard = new Square[8][8];
-		 * for (int i = 0; i < board.length; i++) System.arraycopy(board[i], 0,
-		 * currentBoard[i], 0, board[i].length);
-		 * 
-		 * for (Move move : lookAheadMoves) { Square moveTo =
-		 * currentBoard[move.getMoveSquare().row][move .getMoveSquare().column];
-		 * Square source = currentBoard[move.getSourceSquare().row][move
-		 * .getSourceSquare().column]; Piece moved = move.getPieceMoved();
-		 * 
-		 * Piece removedPiece = moveTo.addPiece(source.removePiece());
-		 * 
-		 * // Generate further possible moves after moving the Piece to // the
-		 * selected Square to check if it checks the opponent // King. If it
-		 * does, check the opponent King ArrayList<Square> nextMovesPossible =
-		 * moveTo.piece .generateMoves(currentBoard); for (Square movePossible :
-		 * nextMovesPossible) if
-		 * (movePossible.containsOpponentKing(moveTo.piece)) { King kingToCheck
-		 * = (King) movePossible.piece; kingToCheck.check(moveTo); }
-		 * 
-		 * // Uncheck each King if it is no longer in threat (handled // in the
-		 * uncheck () method in each King) int kingsChecked = 0; for (int row =
-		 * 0; row < currentBoard.length && kingsChecked < 2; row++) for (int col
-		 * = 0; col < currentBoard[0].length && kingsChecked < 2; col++) {
-		 * Square square = currentBoard[row][col]; if (square.containsPiece()) {
-		 * Piece piece = square.piece; if (piece instanceof King) { King king =
-		 * (King) piece; king.uncheck(currentBoard); kingsChecked++; } }
-		 * 
-		 * }
-		 * 
-		 * }
-		 */
-
-		int score = 0;
-		for (int row = 0; row < board.length; row++)
-		{
-			for (int col = 0; col < board[0].length; col++)
-			{
-				if (board[row][col].containsPiece())
-				{
-					if (board[row][col].piece.color == 0)
-					{
-						score += board[row][col].piece.getValue();
-					}
-					else
-						score -= board[row][col].piece.getValue();
-				}
-			}
-		}
-
-		if (endGameType == endGameTypes[0] && turn == -1)
-			score = -100000;
-		else if (endGameType == endGameTypes[0] && turn == 1)
-			score = 100000;
-
-		return score;
-
-	}
-
-	public int alphaBetaMax(int alpha, int beta, int lookAheadDepth)
-	{
-		if (lookAheadDepth == 0)
-			return evaluate();
-
-		// int maxScore = Integer.MIN_VALUE;
-
-		Piece bestPiece = null;
-		Square bestSourceSquare = null;
-		Square bestMove = null;
-
-		for (int row = 0; row < board.length; row++)
-			for (int col = 0; col < board[row].length; col++)
-			{
-				Square square = board[row][col];
-				if (square.containsPiece() && square.piece.color == 0)
+		// The engine searches a copy of the Position of the game, which the
+		// board keeps using while the search runs
+		final int searchId = ++computerSearchId;
+		computerThinking = true;
+
+		// Look ahead of the user's moves to find the best possible move for
+		// the computer's color (white maximizes the score of the board and
+		// black minimizes it). Then, make the move on the event thread
+		engine.startSearch(AI_MAX_DEPTHS[aiDifficulty - 2],
+				AI_MOVE_TIMES[aiDifficulty - 2], new Engine.SearchListener()
 				{
-					ArrayList<Square> movesPossible = square.piece
-							.generateMoves(board);
-					handleChecks(movesPossible, square, square.piece);
-					for (Square move : movesPossible)
+					@Override
+					public void bestMoveFound(final int bestMove)
 					{
-						King kingChecked = null;
-
-						Piece removedPiece = move
-								.addPiece(square.removePiece(), true);
-
-						// Generate further possible moves after moving the
-						// Piece to
-						// the selected Square to check if it checks the
-						// opponent
-						// King. If it does, check the opponent King
-						ArrayList<Square> nextMovesPossible = move.piece
-								.generateMoves(board);
-						for (Square movePossible : nextMovesPossible)
-							if (movePossible
-									.containsOpponentKing(move.piece))
-							{
-								King kingToCheck = (King) movePossible.piece;
-								kingToCheck.check(move);
-								kingChecked = kingToCheck;
-							}
-
-						// Uncheck each King if it is no longer in threat
-						// (handled
-						// in the uncheck () method in each King)
-						int kingsChecked = 0;
-						for (int r = 0; r < board.length && kingsChecked < 2; r++)
-							for (int c = 0; c < board[0].length
-									&& kingsChecked < 2; c++)
-							{
-								Square sq = board[r][c];
-								if (sq.containsPiece())
-								{
-									Piece piece = sq.piece;
-									if (piece instanceof King)
-									{
-										King king = (King) piece;
-										king.uncheck(board);
-										kingsChecked++;
-									}
-								}
-							}
-
-						int score = alphaBetaMin(alpha, beta,
-								lookAheadDepth - 1);
-
-						// lookAheadMoves.remove(lookAheadMoves.size() - 1);
-
-						/*
-						 * if (score > maxScore) { maxScore = score; bestPiece =
-						 * move.piece; bestSourceSquare = square; bestMove =
-						 * move; }
-						 */
-
-						if (score >= beta)
+						SwingUtilities.invokeLater(new Runnable()
 						{
-							square.addPiece(move.removePiece(), true);
-							if (removedPiece != null)
-								move.addPiece(removedPiece, true);
-
-							if (kingChecked != null)
-								kingChecked.uncheck(board);
-
-							ArrayList<Square> nextMoves = square.piece
-									.generateMoves(board);
-							for (Square movePossible : nextMoves)
-								if (movePossible
-										.containsOpponentKing(square.piece))
-								{
-									King kingToCheck = (King) movePossible.piece;
-									kingToCheck.check(move);
-								}
-
-							this.maxiBestPiece = square.piece;
-							this.maxiBestSourceSquare = square;
-							this.maxiBestMove = move;
-							return beta;
-						}
-						if (score > alpha)
-						{
-							alpha = score;
-							bestPiece = move.piece;
-							bestSourceSquare = square;
-							bestMove = move;
-						}
-
-						square.addPiece(move.removePiece(), true);
-						if (removedPiece != null)
-							move.addPiece(removedPiece, true);
-
-						if (kingChecked != null)
-							kingChecked.uncheck(board);
-
-						ArrayList<Square> nextMoves = square.piece
-								.generateMoves(board);
-						for (Square movePossible : nextMoves)
-							if (movePossible.containsOpponentKing(square.piece))
+							@Override
+							public void run()
 							{
-								King kingToCheck = (King) movePossible.piece;
-								kingToCheck.check(move);
+								if (searchId == computerSearchId)
+									finishComputerMove(bestMove);
 							}
+						});
 					}
-				}
-			}
-
-		this.maxiBestPiece = bestPiece;
-		this.maxiBestSourceSquare = bestSourceSquare;
-		this.maxiBestMove = bestMove;
-
-		return alpha;
-
+				});
 	}
 
-	public int alphaBetaMin(int alpha, int beta, int lookAheadDepth)
+	/**
+	 * Plays the move found by the computer's search on the board and gives
+	 * the turn back to the user
+	 * @param bestMove the move found by the search, or 0 if there is none
+	 */
+	private void finishComputerMove(int bestMove)
 	{
-		if (lookAheadDepth == 0)
-			return evaluate();
-
-		// int minScore = Integer.MAX_VALUE;
-
-		Piece bestPiece = null;
-		Square bestSourceSquare = null;
-		Square bestMove = null;
-
-		for (int row = 0; row < board.length; row++)
-			for (int col = 0; col < board[row].length; col++)
-			{
-				Square square = board[row][col];
-				if (square.containsPiece() && square.piece.color == 1)
-				{
-					ArrayList<Square> movesPossible = square.piece
-							.generateMoves(board);
-					handleChecks(movesPossible, square, square.piece);
-
-					for (Square move : movesPossible)
-					{
-						// lookAheadMoves.add(new Move(square, move,
-						// square.piece,
-						// move.piece));
-						King kingChecked = null;
-
-						Piece removedPiece = move
-								.addPiece(square.removePiece(), true);
-
-						// Generate further possible moves after moving the
-						// Piece to
-						// the selected Square to check if it checks the
-						// opponent
-						// King. If it does, check the opponent King
-						ArrayList<Square> nextMovesPossible = move.piece
-								.generateMoves(board);
-						for (Square movePossible : nextMovesPossible)
-							if (movePossible
-									.containsOpponentKing(move.piece))
-							{
-								King kingToCheck = (King) movePossible.piece;
-								kingToCheck.check(move);
-								kingChecked = kingToCheck;
-							}
-
-						// Uncheck each King if it is no longer in threat
-						// (handled
-						// in the uncheck () method in each King)
-						int kingsChecked = 0;
-						for (int r = 0; r < board.length && kingsChecked < 2; r++)
-							for (int c = 0; c < board[0].length
-									&& kingsChecked < 2; c++)
-							{
-								Square sq = board[r][c];
-								if (sq.containsPiece())
-								{
-									Piece piece = sq.piece;
-									if (piece instanceof King)
-									{
-										King king = (King) piece;
-										king.uncheck(board);
-										kingsChecked++;
-									}
-								}
-							}
-
-						int score = alphaBetaMax(alpha, beta,
-								lookAheadDepth - 1);
-
-						if (score <= alpha)
-						{
-							square.addPiece(move.removePiece(), true);
-							if (removedPiece != null)
-								move.addPiece(removedPiece, true);
-
-							if (kingChecked != null)
-								kingChecked.uncheck(board);
-
-							ArrayList<Square> nextMoves = square.piece
-									.generateMoves(board);
-							for (Square movePossible : nextMoves)
-								if (movePossible
-										.containsOpponentKing(square.piece))
-								{
-									King kingToCheck = (King) movePossible.piece;
-									kingToCheck.check(move);
-								}
-
-							this.miniBestPiece = square.piece;
-							this.miniBestSourceSquare = square;
-							this.miniBestMove = move;
-							return alpha;
-						}
-						if (score < beta)
-						{
-							beta = score;
-							bestPiece = move.piece;
-							bestSourceSquare = square;
-							bestMove = move;
-						}
-
-						// lookAheadMoves.remove(lookAheadMoves.size() - 1);
-
-						/*
-						 * if (score < minScore) { minScore = score; bestPiece =
-						 * move.piece; bestSourceSquare = square; bestMove =
-						 * move; }
-						 */
+		computerThinking = false;
+		if (bestMove != 0)
+			playMove(bestMove);
 
-						square.addPiece(move.removePiece(), true);
-						if (removedPiece != null)
-							move.addPiece(removedPiece, true);
-
-						if (kingChecked != null)
-							kingChecked.uncheck(board);
+		// Set the turn to the user
+		turn *= -1;
 
-						ArrayList<Square> nextMoves = square.piece
-								.generateMoves(board);
-						for (Square movePossible : nextMoves)
-							if (movePossible.containsOpponentKing(square.piece))
-							{
-								King kingToCheck = (King) movePossible.piece;
-								kingToCheck.check(move);
-							}
-					}
-				}
-			}
+		repaint();
 
-		this.miniBestPiece = bestPiece;
-		this.miniBestSourceSquare = bestSourceSquare;
-		this.miniBestMove = bestMove;
+		playerMoveMade = false;
+	}
 
-		return beta;
+	/**
+	 * Cancels the computer's search if it is still looking for a move, such
+	 * as when a new game is started, a move is undone or the main menu is
+	 * shown, so that its move is never played
+	 */
+	private void cancelComputerMove()
+	{
+		computerSearchId++;
+		if (computerThinking)
+		{
+			engine.stopSearch();
+			computerThinking = false;
+			playerMoveMade = false;
+		}
 	}
 
 	/**
@@ -1124,15 +875,13 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 		// If the game can be undone, do the following
 		if (canUndo())
 		{
+			cancelComputerMove();
+
 			// Undo the last move made, as well the second last move if playing
 			// against the computer
-			Move lastMove = moves.removeLast();
-			lastMove.undo(capturedPieces);
+			takeBackMove(moves.removeLast());
 			if (vsComputerScreen)
-			{
-				Move secondLastMove = moves.removeLast();
-				secondLastMove.undo(capturedPieces);
-			}
+				takeBackMove(moves.removeLast());
 
 			// Another undo move cannot be made if in a two player game. Also,
 			// the next turn must be taken by the alternate player if in a two
@@ -1143,22 +892,6 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 				turn *= -1;
 			}
 
-			// Uncheck each King if it is no longer in threat (handled
-			// in the uncheck () method in each King)
-			int kingsChecked = 0;
-			for (int row = 0; row < board.length && kingsChecked < 2; row++)
-				for (int col = 0; col < board[0].length
-						&& kingsChecked < 2; col++)
-				{
-					Square square = board[row][col];
-					if (square.containsPiece() && square.piece instanceof King)
-					{
-						King king = (King) square.piece;
-						king.uncheck(board);
-						kingsChecked++;
-					}
-				}
-
 			// Check if the game has ended after undoing
 			checkEndOfGame();
 
@@ -1253,27 +986,9 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 		if (turn == -1)
 			turnColor = 1;
 
-		// Keep track of the number of pieces, on the side whose turn it is,
-		// that can be legally moved
-		boolean piecesCanBeMoved = false;
-
-		// Go through each Piece on the board and generate moves from it
-		// (including handling checks) to see if it can be moved. If a single
-		// piece on the side whose turn it is currently can move, pieces can be
-		// moved
-		for (int row = 0; row < board.length && !piecesCanBeMoved; row++)
-			for (int col = 0; col < board[row].length && !piecesCanBeMoved; col++)
-			{
-				Square check = board[row][col];
-				if (check.containsPiece() && check.piece.color == turnColor)
-				{
-					ArrayList<Square> movesPossible = check.piece
-							.generateMoves(board);
-					handleChecks(movesPossible, check, check.piece);
-					if (!movesPossible.isEmpty())
-						piecesCanBeMoved = true;
-				}
-			}
+		// Keep track of whether any piece, on the side whose turn it is, can be
+		// legally moved, which the legal moves of the Position of the game tell
+		boolean piecesCanBeMoved = engine.generateLegalMoves() > 0;
 
 		// If no pieces of pieces in the current turn exist, the game is over.
 		// If the king is in check, a check mate has occurred. Else, a draw by
@@ -1281,24 +996,10 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 		if (!piecesCanBeMoved)
 		{
 			gameOver = true;
-			boolean kingFound = false;
-			for (int row = 0; row < board.length && !kingFound; row++)
-				for (int col = 0; col < board[row].length && !kingFound; col++)
-				{
-					Square check = board[row][col];
-					if (check.containsPiece() && check.piece instanceof King
-							&& check.piece.color == turnColor)
-					{
-						King ownKing = (King) check.piece;
-
-						if (ownKing.inCheck())
-							endGameType = endGameTypes[0];
-						else
-							endGameType = endGameTypes[1];
-
-						kingFound = true;
-					}
-				}
+			if (position.inCheck(turnColor))
+				endGameType = endGameTypes[0];
+			else
+				endGameType = endGameTypes[1];
 
 			return;
 		}
@@ -1478,88 +1179,28 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 	}
 
 	/**
-	 * Handles moves of the given selected piece when the King is under check,
-	 * or when a specific move of the given selected piece may put its king in a
-	 * check
-	 * @param movesGenerated the original ArrayList of Squares to which the
-	 *            selected Piece can move
-	 * @param pieceSelected the selected Piece whose moves have been selected
-	 * @param source the source Square from which the piece is selected
-	 *            Postcondition: All the Squares to which the selected piece
-	 *            cannot move legally are removed from the given original
-	 *            ArrayList of moves
+	 * Generates the Squares to which the piece on the given Square can legally
+	 * move, according to the legal moves of the Position of the game. These
+	 * account for the King being under check, for moves that would put the
+	 * King in a check, and for castling and en passant
+	 * @param source the source Square of the piece, whose color is the side
+	 *            to move
+	 * @return the ArrayList of Squares to which the piece can legally move
 	 */
-	public void handleChecks(ArrayList<Square> movesGenerated,
-			Square source, Piece pieceSelected)
+	private ArrayList<Square> generateLegalMoves(Square source)
 	{
-		// Keep track of all the Squares from the original moves
-		// to which this Piece cannot be added in the actual
-		// game
-		ArrayList<Square> movesNotPossible = new
-				ArrayList<Square>();
-
-		// For each original Square this Piece can move to, do
-		// the following
-		for (Square move : movesGenerated)
-		{
-			// Add this Piece to that Square for checking
-			// purposes and remove any existing Piece
-			Piece removedPiece = null;
-			removedPiece = move.addPiece(pieceSelected, true);
-			source.removePiece();
-
-			// Keep track of whether the selected piece's King
-			// comes under check when this Piece is moved to the
-			// original move Square being checked
-			boolean putsKingInCheck = false;
-
-			// For each Square on the board that contains a
-			// non-King piece which is an opponent of the
-			// selected Piece, do the following
-			for (int checkRow = 0; checkRow < board.length
-					&& !putsKingInCheck; checkRow++)
-				for (int checkCol = 0; checkCol < board[checkRow].length
-						&& !putsKingInCheck; checkCol++)
-				{
-					Square checkSq = board[checkRow][checkCol];
-					if (checkSq.containsPiece()
-							&& !(checkSq.piece instanceof King)
-							&& !checkSq.piece
-									.isSameColor(pieceSelected))
-					{
-						// Generate all the moves from this
-						// opponent Piece
-						ArrayList<Square> nextMovesPossible =
-								checkSq.piece
-										.generateMoves(board);
-
-						// If the opponent Piece can attack the
-						// selected piece's King, the selected
-						// piece cannot be moved to the original
-						// Square being checked
-						for (Square next : nextMovesPossible)
-						{
-							if (next.containsOwnKing(pieceSelected))
-							{
-								movesNotPossible.add(move);
-								putsKingInCheck = true;
-							}
-						}
-					}
-				}
-
-			// Restore the original positions of all Pieces
-			move.removePiece();
-			source.addPiece(pieceSelected, true);
-			if (removedPiece != null)
-				move.addPiece(removedPiece, true);
-		}
-
-		// Remove all the Squares to which this Piece cannot
-		// move from the original moves
-		for (Square next : movesNotPossible)
-			movesGenerated.remove(next);
+		// Keep track of the Squares the piece can legally move to as a
+		// bitboard
+		engine.generateLegalMoves();
+		long legalTargets = engine.getLegalTargets(source.row * 8
+				+ source.column);
 
+		ArrayList<Square> legalMoves = new ArrayList<Square>();
+		for (int row = 0; row < board.length; row++)
+			for (int col = 0; col < board[row].length; col++)
+				if ((legalTargets & (1L << (row * 8 + col))) != 0)
+					legalMoves.add(board[row][col]);
+		return legalMoves;
 	}
 
 	// Dummy method
@@ -1604,9 +1245,9 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 			else if (twoPlayerButton.contains(selectedPoint))
 			{
 				mainScreen = false;
-				newGame();
 				twoPlayerScreen = true;
 				vsComputerScreen = false;
+				newGame();
 			}
 		}
 
@@ -1686,22 +1327,14 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 						if ((turn == 1 && selectedSquare.piece.color == 0)
 								|| (turn == -1 && selectedSquare.piece.color == 1))
 						{
-							// Keep track of the moves generated from the
-							// selected
-							// Piece and set the source square and selected
-							// piece
-							// accordingly
-							movesGenerated = selectedSquare.piece
-									.generateMoves(board);
+							// Keep track of the legal moves of the selected
+							// Piece, which account for its King being under
+							// check and for moves producing a check, and set
+							// the source square and selected piece accordingly
+							movesGenerated = generateLegalMoves(selectedSquare);
 							selectedPiece = selectedSquare.piece;
 							sourceSquare = selectedSquare;
 
-							// Handle situations for moving the selected piece
-							// when its King may be under check, or when moving
-							// the piece may produce a check
-							handleChecks(movesGenerated, sourceSquare,
-									selectedPiece);
-
 							// Highlight all the Squares to which the selected
 							// Piece can move. Also, select the square (set its
 							// background image)
@@ -1716,197 +1349,13 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 				{
 					if (movesGenerated.indexOf(selectedSquare) >= 0)
 					{
-						sourceSquare.removePiece();
+						// Play the move on the Position of the game and show
+						// it on the board, asking the user for the piece to
+						// promote a Pawn to. Add this Move to the list of
+						// Moves and set the undo option of the frame to true
+						// since at least this move can be undone
 						turn *= -1;
-
-						// If a move has been made after a pawn has moved two
-						// spaces for the first time, no en passant move can be
-						// made on it by another Pawn
-						if (!moves.isEmpty())
-						{
-							Piece lastPieceMoved = moves.getLast()
-									.getPieceMoved();
-							for (int row = 0; row < board.length; row++)
-								for (int col = 0; col < board[row].length; col++)
-									if (board[row][col].containsPiece())
-									{
-										Piece piece = board[row][col].piece;
-										if (piece instanceof Pawn)
-										{
-											Pawn pawn = (Pawn) piece;
-											if (!pawn.equals(lastPieceMoved))
-												pawn.enPassantPossible = false;
-										}
-									}
-						}
-
-						// Check for an en passant move and capture the en
-						// passant Pawn
-						if (selectedPiece instanceof Pawn &&
-								!selectedSquare.containsPiece())
-						{
-							Pawn selectedPawn = (Pawn) selectedPiece;
-							if (!selectedPawn.onOppositeSide)
-							{
-								Piece removed = board[selectedSquare.row + 1][selectedSquare.column]
-										.removePiece();
-								if (removed != null)
-								{
-									removed.capture(capturedPieces);
-									capturedPieces.add(removed);
-								}
-								board[selectedSquare.row + 1][selectedSquare.column]
-										.unhighlight();
-							}
-							else
-							{
-								Piece removed = board[selectedSquare.row - 1][selectedSquare.column]
-										.removePiece();
-								if (removed != null)
-								{
-									removed.capture(capturedPieces);
-									capturedPieces.add(removed);
-								}
-								board[selectedSquare.row - 1][selectedSquare.column]
-										.unhighlight();
-							}
-						}
-
-						// Add the Piece to the selected Square and if any Piece
-						// is captured, add it to the ArrayList of captured
-						// Pieces
-						Piece capturedPiece = selectedSquare
-								.addPiece(selectedPiece, false);
-						if (capturedPiece != null)
-						{
-							capturedPiece.capture(capturedPieces);
-							capturedPieces.add(capturedPiece);
-						}
-
-						if (selectedPiece instanceof King)
-						{
-							// If the Piece is a King and moves two spaces, it
-							// must be castling. Move the Rook the King is
-							// castling with accordingly
-							King king = (King) selectedPiece;
-							king.hasMoved = true;
-							if (selectedSquare.column - sourceSquare.column != Math
-									.abs(1))
-							{
-								Rook rook;
-
-								// Handle castling King side
-								if (selectedSquare.column == 6
-										&& board[selectedSquare.row][selectedSquare.column + 1].piece instanceof Rook)
-								{
-									rook = (Rook) board[selectedSquare.row][selectedSquare.column + 1].piece;
-									board[rook.row][rook.column].removePiece();
-									board[selectedSquare.row][selectedSquare.column - 1]
-											.addPiece(rook, false);
-									rook.castle(selectedSquare.row,
-											selectedSquare.column + 1);
-								}
-
-								// Handle castling Queen Side
-								else if (selectedSquare.column == 2
-										&& board[selectedSquare.row][selectedSquare.column - 2].piece instanceof Rook)
-								{
-									rook = (Rook) board[selectedSquare.row][selectedSquare.column - 2].piece;
-									board[rook.row][rook.column].removePiece();
-									board[selectedSquare.row][selectedSquare.column + 1]
-											.addPiece(rook, false);
-									rook.castle(selectedSquare.row,
-											selectedSquare.column - 2);
-
-								}
-
-							}
-						}
-
-						// If a Pawn is being moved to the back row of the
-						// opposite side, display a message giving the user
-						// possible choice of piece to promote the pawn to.
-						// Remove the pawn being promoted and add the promoted
-						// Piece selected by the user in its place
-						if (selectedPiece instanceof Pawn
-								&& (selectedPiece.row == 0
-								|| selectedPiece.row == 7))
-						{
-							String[] promotionChoices = { "Queen", "Knight",
-									"Bishop", "Rook" };
-							int promotionChoice = JOptionPane
-									.showOptionDialog(
-											chessFrame,
-											"Please choose the piece you wish to promote your pawn to",
-											"Promotion Piece Choices",
-											JOptionPane.YES_NO_CANCEL_OPTION,
-											JOptionPane.QUESTION_MESSAGE,
-											null,
-											promotionChoices,
-											promotionChoices[0]);
-							selectedSquare.removePiece();
-							Piece promotedPiece;
-							if (promotionChoice == 0)
-								promotedPiece = new Queen(selectedSquare.row,
-										selectedSquare.column,
-										selectedPiece.color);
-							else if (promotionChoice == 1)
-								promotedPiece = new Knight(selectedSquare.row,
-										selectedSquare.column,
-										selectedPiece.color);
-							else if (promotionChoice == 2)
-								promotedPiece = new Bishop(selectedSquare.row,
-										selectedSquare.column,
-										selectedPiece.color);
-							else
-								promotedPiece = new Rook(selectedSquare.row,
-										selectedSquare.column,
-										selectedPiece.color);
-							selectedSquare.addPiece(promotedPiece, false);
-						}
-
-						// Generate further possible moves after moving the
-						// Piece to
-						// the selected Square to check if it checks the
-						// opponent
-						// King. If it does, check the opponent King
-						ArrayList<Square> nextMovesPossible = selectedSquare.piece
-								.generateMoves(board);
-						for (Square movePossible : nextMovesPossible)
-							if (movePossible
-									.containsOpponentKing(selectedPiece))
-							{
-								King kingToCheck = (King) movePossible.piece;
-								kingToCheck.check(selectedSquare);
-							}
-
-						// Uncheck each King if it is no longer in threat
-						// (handled
-						// in the uncheck () method in each King)
-						int kingsChecked = 0;
-						for (int row = 0; row < board.length
-								&& kingsChecked < 2; row++)
-							for (int col = 0; col < board[0].length
-									&& kingsChecked < 2; col++)
-							{
-								Square square = board[row][col];
-								if (square.containsPiece())
-								{
-									Piece piece = square.piece;
-									if (piece instanceof King)
-									{
-										King king = (King) piece;
-										king.uncheck(board);
-										kingsChecked++;
-									}
-								}
-							}
-
-						// Add this Move to the list of Moves and set the undo
-						// option of the frame to true since at least this move
-						// can be undone
-						moves.addLast(new Move(sourceSquare, selectedSquare,
-								selectedPiece, capturedPiece));
+						playMove(findPlayerMove(sourceSquare, selectedSquare));
 						moveUndone = false;
 						chessFrame.setUndoOption(true);
 					}
@@ -1977,22 +1426,14 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 						if (turn == playerColor
 								&& ((playerColor == 1 && selectedSquare.piece.color == 0) || (playerColor == -1 && selectedSquare.piece.color == 1)))
 						{
-							// Keep track of the moves generated from the
-							// selected
-							// Piece and set the source square and selected
-							// piece
-							// accordingly
-							movesGenerated = selectedSquare.piece
-									.generateMoves(board);
+							// Keep track of the legal moves of the selected
+							// Piece, which account for its King being under
+							// check and for moves producing a check, and set
+							// the source square and selected piece accordingly
+							movesGenerated = generateLegalMoves(selectedSquare);
 							selectedPiece = selectedSquare.piece;
 							sourceSquare = selectedSquare;
 
-							// Handle situations for moving the selected piece
-							// when its King may be under check, or moving the
-							// piece may produce a check
-							handleChecks(movesGenerated, sourceSquare,
-									selectedPiece);
-
 							// Highlight all the Squares to which the selected
 							// Piece can move. Also, select the square (set its
 							// background image)
@@ -2014,149 +1455,14 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 					Point pos = new Point(selectedPiece.getPosition());
 					if (movesGenerated.indexOf(selectedSquare) >= 0)
 					{
-						sourceSquare.removePiece();
+						// Play the move on the Position of the game and show
+						// it on the board, asking the user for the piece to
+						// promote a Pawn to. Add this Move to the list of
+						// Moves and set the undo option of the frame to true
+						// since at least this move can be undone
 						turn *= -1;
-
-						// Add the Piece to the selected Square and if any Piece
-						// is
-						// captured, add it to the ArrayList of captured Pieces
-						Piece capturedPiece = selectedSquare
-								.addPiece(selectedPiece, false);
-						if (capturedPiece != null)
-						{
-							capturedPiece.capture(capturedPieces);
-							capturedPieces.add(capturedPiece);
-						}
-
-						if (selectedPiece instanceof King)
-						{
-							// If the Piece is a King and moves two spaces, it
-							// must be castling. Move the Rook the King is
-							// castling with accordingly
-							King king = (King) selectedPiece;
-							king.hasMoved = true;
-
-							if (selectedSquare.column - sourceSquare.column != Math
-									.abs(1))
-							{
-								Rook rook;
-
-								// Handle castling King side
-								if (selectedSquare.column == 6
-										&& board[selectedSquare.row][selectedSquare.column + 1].piece instanceof Rook)
-								{
-									rook = (Rook) board[selectedSquare.row][selectedSquare.column + 1].piece;
-									board[rook.row][rook.column].removePiece();
-									board[selectedSquare.row][selectedSquare.column - 1]
-											.addPiece(rook, false);
-									rook.castle(selectedSquare.row,
-											selectedSquare.column + 1);
-
-								}
-
-								// Handle castling Queen Side
-								else if (selectedSquare.column == 2
-										&& board[selectedSquare.row][selectedSquare.column - 2].piece instanceof Rook)
-								{
-									rook = (Rook) board[selectedSquare.row][selectedSquare.column - 2].piece;
-									board[rook.row][rook.column].removePiece();
-									board[selectedSquare.row][selectedSquare.column + 1]
-											.addPiece(rook, false);
-									rook.castle(selectedSquare.row,
-											selectedSquare.column - 2);
-
-								}
-
-							}
-						}
-
-						// If a Pawn is being moved to the back row of the
-						// opposite side, display a message giving the user
-						// possible choice of piece to promote the pawn to.
-						// Remove the pawn being promoted and add the promoted
-						// Piece selected by the user in its place
-						if (selectedPiece instanceof Pawn
-								&& (selectedPiece.row == 0
-								|| selectedPiece.row == 7))
-						{
-
-							String[] promotionChoices = { "Queen", "Knight",
-									"Bishop", "Rook" };
-							int promotionChoice = JOptionPane
-									.showOptionDialog(
-											chessFrame,
-											"Please choose the piece you wish to promote your pawn to",
-											"Promotion Piece Choices",
-											JOptionPane.YES_NO_CANCEL_OPTION,
-											JOptionPane.QUESTION_MESSAGE,
-											null,
-											promotionChoices,
-											promotionChoices[0]);
-							selectedSquare.removePiece();
-							Piece promotedPiece;
-							if (promotionChoice == 0)
-								promotedPiece = new Queen(selectedSquare.row,
-										selectedSquare.column,
-										selectedPiece.color);
-							else if (promotionChoice == 1)
-								promotedPiece = new Knight(selectedSquare.row,
-										selectedSquare.column,
-										selectedPiece.color);
-							else if (promotionChoice == 2)
-								promotedPiece = new Bishop(selectedSquare.row,
-										selectedSquare.column,
-										selectedPiece.color);
-							else
-								promotedPiece = new Rook(selectedSquare.row,
-										selectedSquare.column,
-										selectedPiece.color);
-							selectedSquare.addPiece(promotedPiece, false);
-						}
-
-						// Generate further possible moves after moving the
-						// Piece to
-						// the selected Square to check if it checks the
-						// opponent
-						// King. If it does, check the opponent King
-						ArrayList<Square> nextMovesPossible = selectedSquare.piece
-								.generateMoves(board);
-						for (Square movePossible : nextMovesPossible)
-							if (movePossible
-									.containsOpponentKing(selectedPiece))
-							{
-								King kingToCheck = (King) movePossible.piece;
-								kingToCheck.check(selectedSquare);
-							}
-
-						// Uncheck each King if it is no longer in threat
-						// (handled
-						// in the uncheck () method in each King)
-						int kingsChecked = 0;
-						for (int row = 0; row < board.length
-								&& kingsChecked < 2; row++)
-							for (int col = 0; col < board[0].length
-									&& kingsChecked < 2; col++)
-							{
-								Square square = board[row][col];
-								if (square.containsPiece())
-								{
-									Piece piece = square.piece;
-									if (piece instanceof King)
-									{
-										King king = (King) piece;
-										king.uncheck(board);
-										kingsChecked++;
-									}
-								}
-							}
-
-						// Add this Move to the list of Moves and set the undo
-						// option of the frame to true since at least this move
-						// can
-						// be undone
+						playMove(findPlayerMove(sourceSquare, selectedSquare));
 						playerMoveMade = true;
-						moves.addLast(new Move(sourceSquare, selectedSquare,
-								selectedPiece, capturedPiece));
 						moveUndone = false;
 						chessFrame.setUndoOption(true);
 
@@ -2213,6 +1519,7 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 
 			else if (mainMenuButton.contains(selectedPoint))
 			{
+				cancelComputerMove();
 				vsComputerScreen = false;
 				mainScreen = true;
 			}
@@ -2277,7 +1584,7 @@ public class Board extends JPanel implements MouseListener, MouseMotionListener
 			{
 				Square mouseOver = getSelectedSquare(currentPoint);
 				if (selectedPiece == null && mouseOver.containsPiece()
-						&& !mouseOver.piece.generateMoves(board).isEmpty())
+						&& !generateLegalMoves(mouseOver).isEmpty())
 				{
 					if (turn == 1 && mouseOver.piece.color == 0)
 						setCursor(Cursor
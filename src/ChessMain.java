@@ -30,7 +30,7 @@ public class ChessMain extends JFrame implements ActionListener
 	private JMenuItem undoOption, drawOption, aboutMenuItem, instructionsItem;
 	private JMenuItem pawnHelp, knightHelp, bishopHelp, rookHelp, queenHelp,
 			kingHelp, enPassantHelp, promotionHelp, castlingHelp;
-	protected static boolean autoComplete = true;
+	protected boolean autoComplete = true;
 
 	/**
 	 * Constructs the Chess game and the Menu items
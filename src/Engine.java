@@ -0,0 +1,235 @@
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Keeps track of the headless core of the Chess engine: the Position of a
+ * game, its legal moves, and the Search and transposition table the computer
+ * uses to play it. It does not depend on AWT or Swing, so it can run on a
+ * server with no display, and the Board is only a client of it. Searches can
+ * either run on the calling thread or on a search thread of this engine, which
+ * reports the best move found to a listener. Includes methods to construct an
+ * engine with a given hash size and number of threads, to get its Position, to
+ * generate its legal moves and the Squares a piece can legally move to, to
+ * start a new game, and to start, run and stop searches
+ * @author Siddharth Vaknalli and Sean Marchand
+ * @version Sunday, October 18, 2026
+ */
+public class Engine
+{
+	/**
+	 * Listens for the best move found by a search started on the search thread
+	 * of an Engine
+	 */
+	public interface SearchListener
+	{
+		/**
+		 * Called on the search thread when a search has finished
+		 * @param bestMove the best move found, or 0 if there is none
+		 */
+		void bestMoveFound(int bestMove);
+	}
+
+	// Keep track of the Position of the game, its last generated legal moves
+	// and the Search used to look ahead from it
+	private Position position;
+	private int[] legalMoves;
+	private int legalCount;
+	private Search search;
+
+	// Keep track of the executor running searches on their own thread and the
+	// pending search, if any
+	private ExecutorService searchExecutor;
+	private Future<Integer> pendingSearch;
+
+	/**
+	 * Constructs an Engine with the starting Position of a game, a
+	 * transposition table of the given size and the given number of search
+	 * threads
+	 * @param hashMegabytes the size of the transposition table in megabytes
+	 * @param threads the number of threads to search on
+	 * @param lazySmp true if the threads search in Lazy SMP mode, false if
+	 *            they split the moves of the root between them
+	 */
+	public Engine(int hashMegabytes, int threads, boolean lazySmp)
+	{
+		position = new Position();
+		position.setStartingPosition();
+		legalMoves = new int[Position.MAX_MOVES];
+		legalCount = 0;
+		search = new Search(hashMegabytes);
+		search.setThreads(threads);
+		search.setLazySmp(lazySmp);
+		searchExecutor = Executors.newSingleThreadExecutor(new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(Runnable runnable)
+			{
+				// The search thread must not keep the program running once
+				// everything else has finished
+				Thread thread = new Thread(runnable, "Engine search");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Gets the Position of the game played by this Engine, which its clients
+	 * can set up before generating moves or searching
+	 * @return the Position of this Engine
+	 */
+	public Position getPosition()
+	{
+		return position;
+	}
+
+	/**
+	 * Gets the Search of this Engine, to read or change its settings
+	 * @return the Search of this Engine
+	 */
+	public Search getSearch()
+	{
+		return search;
+	}
+
+	/**
+	 * Generates the legal moves of the side to move in the Position of this
+	 * Engine and keeps them to be looked up
+	 * @return the number of legal moves
+	 */
+	public int generateLegalMoves()
+	{
+		legalCount = position.generateLegalMoves(legalMoves);
+		return legalCount;
+	}
+
+	/**
+	 * Gets one of the legal moves last generated
+	 * @param index the index of the move, less than the number of moves
+	 * @return the legal move
+	 */
+	public int getLegalMove(int index)
+	{
+		return legalMoves[index];
+	}
+
+	/**
+	 * Gets the Squares the piece on the given Square can move to among the
+	 * legal moves last generated
+	 * @param from the Square of the piece
+	 * @return a bitboard of the Squares the piece can legally move to
+	 */
+	public long getLegalTargets(int from)
+	{
+		long targets = 0L;
+		for (int next = 0; next < legalCount; next++)
+			if (Position.from(legalMoves[next]) == from)
+				targets |= 1L << Position.to(legalMoves[next]);
+		return targets;
+	}
+
+	/**
+	 * Starts a new game by setting up the starting Position and forgetting
+	 * the Positions searched in the previous game, once any stopped search
+	 * has finished with them
+	 */
+	public void newGame()
+	{
+		stopSearch();
+		position.setStartingPosition();
+		legalCount = 0;
+		searchExecutor.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				search.clearHash();
+			}
+		});
+	}
+
+	/**
+	 * Searches the Position of this Engine on the calling thread. No search
+	 * may be running on the search thread at the same time
+	 * @param maxDepth the most moves to look ahead
+	 * @param moveTime the time to search for in milliseconds, or
+	 *            Search.INFINITE_TIME to search until asked to stop
+	 * @return the best move found, or 0 if there is none
+	 */
+	public int findBestMove(int maxDepth, long moveTime)
+	{
+		search.prepare();
+		return search.findBestMove(position, maxDepth, moveTime);
+	}
+
+	/**
+	 * Starts searching a copy of the Position of this Engine on its search
+	 * thread, so that the Position can keep changing while the search runs.
+	 * Any search still running is stopped, and waited for, first
+	 * @param maxDepth the most moves to look ahead
+	 * @param moveTime the time to search for in milliseconds, or
+	 *            Search.INFINITE_TIME to search until asked to stop
+	 * @param listener the listener told the best move once it is found
+	 */
+	public void startSearch(final int maxDepth, final long moveTime,
+			final SearchListener listener)
+	{
+		stopSearch();
+		search.prepare();
+		final Position searchPosition = new Position(position);
+		pendingSearch = searchExecutor.submit(new Callable<Integer>()
+		{
+			@Override
+			public Integer call()
+			{
+				int bestMove = search.findBestMove(searchPosition, maxDepth,
+						moveTime);
+				listener.bestMoveFound(bestMove);
+				return bestMove;
+			}
+		});
+	}
+
+	/**
+	 * Stops the search running on the search thread, if any, and waits for
+	 * it to finish. Its listener is always told the best move found so far,
+	 * even if the search had not started yet, in which case it stops as soon
+	 * as it has found a move
+	 */
+	public void stopSearch()
+	{
+		if (pendingSearch != null)
+		{
+			// The search is not cancelled, which would keep a search that has
+			// not started from ever telling its listener, but asked to stop
+			search.stop();
+			pendingSearch = null;
+
+			// The search thread runs one task at a time, so once an empty
+			// task has run the stopped search has finished, and a new search
+			// cannot forget the request to stop while its threads still run
+			try
+			{
+				searchExecutor.submit(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+					}
+				}).get();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			catch (ExecutionException e)
+			{
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * Keeps track of the values of each type of Chess piece and the score tables
+ * that make each piece more or less valuable according to its position on the
+ * board. The tables are written from the point of view of the white pieces, as
+ * seen on the Square[][] board (row 0 being the back row of the black pieces),
+ * and are flipped for the black pieces. The value and positional score of
+ * each piece on each Square are added up once into a table, which the
+ * Position uses to keep the score of its pieces up to date as moves are made
+ * and unmade, so that evaluating a Position does not look at its pieces.
+ * Includes methods to get the score of a piece on a given Square and to
+ * evaluate a whole Position
+ * @author Siddharth Vaknalli and Sean Marchand
+ * @version Sunday, October 18, 2026
+ */
+public final class Evaluation
+{
+	// The value of each type of piece, indexed by the piece types of the
+	// Position class (Pawn, Knight, Bishop, Rook, Queen and King)
+	public static final int[] PIECE_VALUES = { 100, 320, 350, 500, 1000, 32676 };
+
+	// Keep track of how favorable each position is for each type of piece
+	private static final int[][] PAWN_TABLE = { { 0, 0, 0, 0, 0, 0, 0, 0 },
+			{ 50, 50, 50, 50, 50, 50, 50, 50 },
+			{ 10, 10, 20, 30, 30, 20, 10, 10 }, { 5, 5, 10, 27, 27, 10, 5, 5 },
+			{ 0, 0, 0, 25, 25, 0, 0, 0, }, { 5, -5, -10, 0, 0, -10, -5, 5 },
+			{ 5, 10, 10, -25, -25, 10, 10, 5 }, { 0, 0, 0, 0, 0, 0, 0, 0 } };
+	private static final int[][] KNIGHT_TABLE = {
+			{ -50, -40, -30, -20, -20, -30, -40, -50 },
+			{ -50, 0, 0, 0, 0, 0, 0, -10 }, { -10, 0, 5, 10, 10, 5, 0, -50 },
+			{ -50, 5, 5, 10, 10, 5, 5, -50 },
+			{ -50, 0, 40, 40, 40, 10, 0, -50 },
+			{ -50, 10, 40, 40, 40, 40, 10, -50 },
+			{ -50, 5, 0, 0, 0, 0, 5, -50 },
+			{ -50, -10, -40, -10, -10, -40, -10, -50 } };
+	// The Bishop can lose or gain points depending on its board position. In
+	// general, it is good to keep your Bishops in the centre, but not totally
+	// crucial
+	private static final int[][] BISHOP_TABLE = {
+			{ -20, -10, -10, -10, -10, -10, -10, -20 },
+			{ -10, 0, 0, 0, 0, 0, 0, -10 }, { -10, 0, 5, 10, 10, 5, 0, -10 },
+			{ -10, 5, 5, 10, 10, 5, 5, -10 },
+			{ -10, 0, 10, 10, 10, 10, 0, -10 },
+			{ -10, 10, 10, 10, 10, 10, 10, -10 },
+			{ -10, 5, 0, 0, 0, 0, 5, -10 },
+			{ -20, -10, -40, -10, -10, -40, -10, -20 } };
+	// The Rook is very valuable if it can get behind the opponents pawns
+	private static final int[][] ROOK_TABLE = {
+			{ 20, 20, 20, 20, 20, 20, 20, 20 },
+			{ 50, 50, 50, 50, 50, 50, 50, 50 }, { 0, 0, 0, 0, 0, 0, 0, 0 },
+			{ 0, 0, 0, 0, 0, 0, 0, 0 }, { 0, 0, 0, 0, 0, 0, 0, 0 },
+			{ 0, 0, 0, 0, 0, 0, 0, 0 }, { 0, 0, 0, 0, 0, 0, 0, 0 },
+			{ 0, -20, -20, -20, -20, -20, -20, -20 } };
+	private static final int[][] QUEEN_TABLE = {
+			{ -40, -20, -20, -20, -20, -20, -20, -40 },
+			{ 50, 50, 50, 50, 50, 50, 50, 50 }, { 0, 0, 0, 0, 0, 0, 0, 0 },
+			{ 50, 50, 50, 50, 50, 50, 50, 50 },
+			{ 50, 50, 50, 50, 50, 50, 50, 50 }, { 0, 0, 0, 0, 0, 0, 0, 0 },
+			{ 0, 0, 0, 0, 0, 0, 0, 0 }, { -40, 0, 0, 0, 0, 0, 0, -40 } };
+	private static final int[][] KING_TABLE = {
+			{ -100, -100, -100, -100, -100, -100, -100, -100 },
+			{ -100, -100, -100, -100, -100, -100, -100, -100 },
+			{ -100, -100, -100, -100, -100, -100, -100, -100 },
+			{ -50, -50, -50, -50, -50, -50, -50, -50 },
+			{ -10, 0, 10, 10, 10, 10, 0, -10 },
+			{ -10, 10, 10, 10, 10, 10, 10, -10 },
+			{ 30, 25, 0, 0, 0, 0, 20, 20 }, { 20, 10, 60, 10, 10, 0, 60, 20 } };
+	private static final int[][][] SCORE_TABLES = { PAWN_TABLE, KNIGHT_TABLE,
+			BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE, KING_TABLE };
+
+	// The value and positional score of a piece of each color and type on
+	// each Square, positive for white pieces and negative for black pieces
+	public static final int[][][] PIECE_SQUARE_SCORES = new int[2][6][64];
+
+	static
+	{
+		for (int type = Position.PAWN; type <= Position.KING; type++)
+			for (int square = 0; square < 64; square++)
+			{
+				int row = square / 8;
+				int column = square % 8;
+				PIECE_SQUARE_SCORES[Position.WHITE][type][square] =
+						PIECE_VALUES[type]
+								+ squareScore(type, Position.WHITE, row, column);
+				PIECE_SQUARE_SCORES[Position.BLACK][type][square] =
+						-PIECE_VALUES[type]
+								- squareScore(type, Position.BLACK, row, column);
+			}
+	}
+
+	/**
+	 * Evaluation is a holder of static tables and cannot be constructed
+	 */
+	private Evaluation()
+	{
+	}
+
+	/**
+	 * Gets the score of a piece of the given type and color for being on the
+	 * given row and column, not including the value of the piece itself
+	 * @param type the type of the piece
+	 * @param color the color of the piece (0 for white, 1 for black)
+	 * @param row the row of the piece
+	 * @param column the column of the piece
+	 * @return the positional score of the piece
+	 */
+	public static int squareScore(int type, int color, int row, int column)
+	{
+		// The score table is flipped for black pieces
+		if (color == 0)
+			return SCORE_TABLES[type][row][column];
+		return SCORE_TABLES[type][7 - row][column];
+	}
+
+	/**
+	 * Evaluates the given Position by the value and positional score of every
+	 * white piece less those of every black piece, which the Position keeps
+	 * up to date as moves are made
+	 * @param position the Position to evaluate
+	 * @return the score of the Position, positive if it favors white
+	 */
+	public static int evaluate(Position position)
+	{
+		return position.getPieceScore();
+	}
+
+	/**
+	 * Evaluates the given Position for the side to move, as the search scores
+	 * Positions
+	 * @param position the Position to evaluate
+	 * @return the score of the Position, positive if it favors the side to
+	 *         move
+	 */
+	public static int evaluateForSideToMove(Position position)
+	{
+		int score = position.getPieceScore();
+		return position.getSideToMove() == Position.WHITE ? score : -score;
+	}
+
+	/**
+	 * Evaluates the given Position from scratch by adding the value and
+	 * positional score of every white piece and subtracting those of every
+	 * black piece. This gives the same score as evaluate, and is used by the
+	 * Position to check the score it keeps when assertions are enabled
+	 * @param position the Position to evaluate
+	 * @return the score of the Position, positive if it favors white
+	 */
+	public static int evaluateFromScratch(Position position)
+	{
+		int score = 0;
+		for (int square = 0; square < 64; square++)
+		{
+			int type = position.pieceAt(square);
+			if (type != Position.EMPTY)
+				score += PIECE_SQUARE_SCORES[position.colorAt(square)][type][square];
+		}
+		return score;
+	}
+}
@@ -5,7 +5,6 @@
  */
 import java.util.ArrayList;
 
-import javax.swing.ImageIcon;
 
 public class Knight extends Piece
 {
@@ -13,15 +12,7 @@ public class Knight extends Piece
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
-	public int value = 320;
-	private static int[][] knightScoreTable = {
-			{ -50, -40, -30, -20, -20, -30, -40, -50 },
-			{ -50, 0, 0, 0, 0, 0, 0, -10 }, { -10, 0, 5, 10, 10, 5, 0, -50 },
-			{ -50, 5, 5, 10, 10, 5, 5, -50 },
-			{ -50, 0, 40, 40, 40, 10, 0, -50 },
-			{ -50, 10, 40, 40, 40, 40, 10, -50 },
-			{ -50, 5, 0, 0, 0, 0, 5, -50 },
-			{ -50, -10, -40, -10, -10, -40, -10, -50 } };
+	public final int value = Evaluation.PIECE_VALUES[Position.KNIGHT];
 
 	/**
 	 * 
@@ -31,9 +22,8 @@ public class Knight extends Piece
 	 */
 	public Knight(int row, int column, int color)
 	{
-		super(row, column, color, color == 0 ? new ImageIcon(
-				"Temp\\Knight0.png").getImage() : new ImageIcon(
-				"Temp\\Knight1.png").getImage());
+		super(row, column, color, getImage(color == 0 ? "Temp\\Knight0.png"
+				: "Temp\\Knight1.png"));
 	}
 
 	/**
@@ -43,9 +33,8 @@ public class Knight extends Piece
 	 */
 	public int getValue()
 	{
-		if (this.color == 0)
-			return value + knightScoreTable[this.row][this.column];
-		return value + knightScoreTable[7 - this.row][this.column];
+		return value
+				+ Evaluation.squareScore(Position.KNIGHT, color, row, column);
 	}
 
 	/**
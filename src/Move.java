@@ -13,11 +13,14 @@ import java.util.ArrayList;
 public class Move
 {
 	// Keep track of the Square to move from and to, the piece to be moved and
-	// to be captured, and whether a Pawn has been moved in this Move
+	// to be captured and its Square, the move as played on the Position of
+	// the game, and whether a Pawn has been moved in this Move
 	private Square from;
 	private Square to;
 	private Piece pieceMoved;
 	private Piece pieceRemoved;
+	private Square removedFrom;
+	private int positionMove;
 	private boolean pawnMoved;
 	private boolean pieceCaptured;
 
@@ -32,12 +35,32 @@ public class Move
 	 *            is moved, if any
 	 */
 	public Move(Square from, Square to, Piece pieceMoved, Piece removed)
+	{
+		this(from, to, pieceMoved, removed, to, 0);
+	}
+
+	/**
+	 * Creates a Move object using a Piece which has been moved, the Square from
+	 * which the Piece has been moved and the Square to which the Piece has been
+	 * moved, a Piece removed from any Square, such as the Pawn captured by an
+	 * en passant capture, and the move as played on the Position of the game
+	 * @param from the Square from which the given Piece is moved
+	 * @param to the Square to which the given Piece is moved
+	 * @param pieceMoved the piece which has been moved
+	 * @param removed the Piece removed by the Move, if any
+	 * @param removedFrom the Square the removed Piece was on
+	 * @param positionMove the move as an integer of the Position class
+	 */
+	public Move(Square from, Square to, Piece pieceMoved, Piece removed,
+			Square removedFrom, int positionMove)
 	{
 		// Initialize the Squares and the Pieces
 		this.from = from;
 		this.to = to;
 		this.pieceMoved = pieceMoved;
 		this.pieceRemoved = removed;
+		this.removedFrom = removedFrom;
+		this.positionMove = positionMove;
 
 		if (pieceMoved instanceof Pawn)
 			pawnMoved = true;
@@ -72,6 +95,15 @@ public class Move
 		return pieceMoved;
 	}
 
+	/**
+	 * Gets this Move as played on the Position of the game, to take it back
+	 * @return the move as an integer of the Position class
+	 */
+	public int getPositionMove()
+	{
+		return positionMove;
+	}
+
 	/**
 	 * Gets the Square a Piece is moved from in this Move
 	 * @return the Square a Piece is moved from in this Move
@@ -98,11 +130,12 @@ public class Move
 	public void undo(ArrayList<Piece> capturedPieces)
 	{
 		// Remove the piece from the Square it is moved to and add it to the
-		// original. If a Piece had been captured, restore it
+		// original. If a Piece had been captured, restore it to the Square it
+		// was captured on
 		to.removePiece();
 		from.addPiece(pieceMoved, false);
 		if (pieceRemoved != null)
-			to.addPiece(pieceRemoved, false);
+			removedFrom.addPiece(pieceRemoved, false);
 
 		// Restore the removed Piece to the given ArrayList of those
 		// captured
@@ -1,5 +1,4 @@
 import java.util.ArrayList;
-import javax.swing.ImageIcon;
 
 /**
  * Keeps track of a Pawn class for a Chess game, and keeps track of whether is
@@ -16,34 +15,34 @@ public class Pawn extends Piece
 	private static final long serialVersionUID = 1L;
 
 	// Keep track of whether this Pawn is on the
-	// opposite side of the board and whether another Pawn can complete an en
-	// passant move on this Pawn if legal
+	// opposite side of the board, whether another Pawn can complete an en
+	// passant move on this Pawn if legal and whether this Pawn may capture en
+	// passant at all in the game it is played in
 	protected boolean onOppositeSide;
 	protected boolean enPassantPossible;
+	private final boolean enPassantAllowed;
 
-	// Keep track of the value of the Pawn in a game and a score table based on
-	// how favorable each position is for each Pawn
-	public int value = 100;
-	private static int[][] pawnScoreTable = { { 0, 0, 0, 0, 0, 0, 0, 0 },
-			{ 50, 50, 50, 50, 50, 50, 50, 50 },
-			{ 10, 10, 20, 30, 30, 20, 10, 10 }, { 5, 5, 10, 27, 27, 10, 5, 5 },
-			{ 0, 0, 0, 25, 25, 0, 0, 0, }, { 5, -5, -10, 0, 0, -10, -5, 5 },
-			{ 5, 10, 10, -25, -25, 10, 10, 5 }, { 0, 0, 0, 0, 0, 0, 0, 0 } };
+	// Keep track of the value of the Pawn in a game (its score table based on
+	// how favorable each position is is kept by the Evaluation class)
+	public final int value = Evaluation.PIECE_VALUES[Position.PAWN];
 
 	/**
 	 * Constructs a Pawn object using the given row, column and color as an
-	 * integer (0 for white, 1 for black)
+	 * integer (0 for white, 1 for black), and whether it may capture en passant
+	 * in the game it is played in
 	 * @param row the row of this Pawn object
 	 * @param column the column of this Pawn object
 	 * @param color the color of this Pawn as an integer - 0 for white, and 1 as
 	 *            black
+	 * @param enPassantAllowed true if this Pawn may capture en passant, false
+	 *            otherwise
 	 */
-	public Pawn(int row, int column, int color)
+	public Pawn(int row, int column, int color, boolean enPassantAllowed)
 	{
 		// Call the super constructor with the given row, column and appropriate
 		// image
-		super(row, column, color, color == 0 ? new ImageIcon("Temp\\Pawn0.png")
-				.getImage() : new ImageIcon("Temp\\Pawn1.png").getImage());
+		super(row, column, color, getImage(color == 0 ? "Temp\\Pawn0.png"
+				: "Temp\\Pawn1.png"));
 
 		// Keep track of which side this Pawn exists
 		if (row == 1)
@@ -54,6 +53,7 @@ public class Pawn extends Piece
 		// The pawn cannot be captured in an en
 		// passant move
 		enPassantPossible = false;
+		this.enPassantAllowed = enPassantAllowed;
 	}
 	
 	/**
@@ -62,11 +62,8 @@ public class Pawn extends Piece
 	 */
 	public int getValue()
 	{
-		if (this.color == 0)
-		{
-			return value + pawnScoreTable[this.row][this.column];
-		}
-		return value + pawnScoreTable[7 - this.row][this.column];
+		return value
+				+ Evaluation.squareScore(Position.PAWN, color, row, column);
 	}
 
 	/**
@@ -122,7 +119,7 @@ public class Pawn extends Piece
 				validMoves.add(board[row - 1][column + 1]);
 			}
 
-			if (Board.twoPlayerScreen)
+			if (enPassantAllowed)
 			{
 				// Check whether an en passant move can be made on a Pawn in a
 				// Square to the left of this one
@@ -184,7 +181,7 @@ public class Pawn extends Piece
 				validMoves.add(board[row + 1][column + 1]);
 			}
 
-			if (Board.twoPlayerScreen)
+			if (enPassantAllowed)
 			{
 				// Check whether an en passant move can be made on a Pawn in a
 				// Square to the left of this one
@@ -0,0 +1,282 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Keeps track of a perft (performance test) harness for the move generator of
+ * the Position class, which the Board also uses to find the legal moves of its
+ * pieces. Perft counts the Positions reached by playing every sequence of
+ * legal moves of a given length, which is compared with the known counts of a
+ * suite of standard positions: the starting position, Kiwipete and positions
+ * testing en passant, castling and promotion edge cases. The counts are
+ * reported with the time taken and the number of Positions per second, both on
+ * one thread and with the root moves split across a pool of threads, so the
+ * harness serves as a throughput benchmark and as a regression check of every
+ * change to move generation (it exits with status 1 if any count is wrong).
+ * Run with assertions enabled (java -ea), every move made and unmade also
+ * checks the score the Position keeps against one added up from scratch.
+ * Divide reports the count after each root move, to find the move that is
+ * generated wrongly. Includes methods to run the suite or a single perft or
+ * divide from the command line and to count the Positions of a given depth
+ * on one or more threads
+ * @author Siddharth Vaknalli and Sean Marchand
+ * @version Sunday, October 18, 2026
+ */
+public class Perft
+{
+	// The suite of positions in Forsyth-Edwards Notation, the depth each is
+	// counted to and its known count at that depth
+	private static final String[] SUITE_FENS = {
+			Position.STARTING_FEN,
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+			"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+			"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+			"3k4/3p4/8/K1P4r/8/8/8/8 b - - 0 1",
+			"8/8/4k3/8/2p5/8/B2P2K1/8 w - - 0 1",
+			"8/8/1k6/2b5/2pP4/8/5K2/8 b - d3 0 1",
+			"5k2/8/8/8/8/8/8/4K2R w K - 0 1",
+			"3k4/8/8/8/8/8/8/R3K3 w Q - 0 1",
+			"r3k2r/1b4bq/8/8/8/8/7B/R3K2R w KQkq - 0 1",
+			"r3k2r/8/3Q4/8/8/5q2/8/R3K2R b KQkq - 0 1",
+			"2K2r2/4P3/8/8/8/8/8/3k4 w - - 0 1" };
+	private static final String[] SUITE_NAMES = { "Starting position",
+			"Kiwipete", "Rook endgame with en passant", "Promotions and pins",
+			"Discovered checks", "Illegal en passant (pinned)",
+			"Illegal en passant (check)", "En passant giving check",
+			"King side castling giving check",
+			"Queen side castling giving check", "Castling rights",
+			"Castling prevented", "Promotion out of check" };
+	private static final int[] SUITE_DEPTHS = { 5, 4, 5, 4, 4, 6, 6, 6, 6, 6,
+			4, 4, 6 };
+	private static final long[] SUITE_COUNTS = { 4865609L, 4085603L, 674624L,
+			422333L, 2103487L, 1134888L, 1015133L, 1440467L, 661072L, 803711L,
+			1274206L, 1720476L, 3821001L };
+
+	// Keep track of the buffers the moves of each ply are generated into
+	private int[][] moveBuffers;
+
+	/**
+	 * Runs the perft suite, or a single perft or divide, from the command
+	 * line. With no arguments, the suite is run on one thread and then on one
+	 * thread for each processor. Otherwise the arguments are one of:
+	 * suite [threads], perft depth [threads] [fen] or divide depth [fen]
+	 * @param args the arguments of the program
+	 * @throws InterruptedException if a parallel count is interrupted
+	 */
+	public static void main(String[] args) throws InterruptedException
+	{
+		int processors = Runtime.getRuntime().availableProcessors();
+		String mode = args.length > 0 ? args[0] : "suite";
+		if (mode.equals("suite"))
+		{
+			boolean passed = runSuite(1);
+			int threads = args.length > 1 ? Integer.parseInt(args[1])
+					: processors;
+			if (threads > 1)
+				passed &= runSuite(threads);
+			if (!passed)
+				System.exit(1);
+		}
+		else if (mode.equals("perft") && args.length > 1)
+		{
+			int depth = Integer.parseInt(args[1]);
+			int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+			Position position = readPosition(args, 3);
+			long start = System.nanoTime();
+			long count = count(position, depth, threads);
+			report("perft " + depth, count, System.nanoTime() - start);
+		}
+		else if (mode.equals("divide") && args.length > 1)
+			new Perft().divide(readPosition(args, 2),
+					Integer.parseInt(args[1]));
+		else
+			System.out.println("Usage: java Perft [suite [threads] | "
+					+ "perft depth [threads] [fen] | divide depth [fen]]");
+	}
+
+	/**
+	 * Sets up the Position given in Forsyth-Edwards Notation by the
+	 * arguments from the given index on, or the starting Position if there
+	 * are none
+	 * @param args the arguments of the program
+	 * @param first the index of the first word of the notation
+	 * @return the Position
+	 */
+	private static Position readPosition(String[] args, int first)
+	{
+		Position position = new Position();
+		StringBuilder fen = new StringBuilder();
+		for (int next = first; next < args.length; next++)
+			fen.append(args[next]).append(' ');
+		if (fen.length() == 0)
+			position.setStartingPosition();
+		else
+			position.setFen(fen.toString());
+		return position;
+	}
+
+	/**
+	 * Counts each Position of the suite to its depth on the given number of
+	 * threads and reports whether each count is correct, and the total time
+	 * and number of Positions per second
+	 * @param threads the number of threads to count on
+	 * @return true if every count is correct, false otherwise
+	 * @throws InterruptedException if a parallel count is interrupted
+	 */
+	public static boolean runSuite(int threads) throws InterruptedException
+	{
+		System.out.println("Perft suite on " + threads
+				+ (threads == 1 ? " thread" : " threads"));
+		boolean passed = true;
+		long totalCount = 0;
+		long totalTime = 0;
+		Position position = new Position();
+		for (int next = 0; next < SUITE_FENS.length; next++)
+		{
+			position.setFen(SUITE_FENS[next]);
+			long start = System.nanoTime();
+			long count = count(position, SUITE_DEPTHS[next], threads);
+			long time = System.nanoTime() - start;
+			boolean correct = count == SUITE_COUNTS[next];
+			report((correct ? "ok     " : "FAILED ") + SUITE_NAMES[next]
+					+ " depth " + SUITE_DEPTHS[next]
+					+ (correct ? "" : " (expected " + SUITE_COUNTS[next]
+							+ ")"), count, time);
+			passed &= correct;
+			totalCount += count;
+			totalTime += time;
+		}
+		report("Total", totalCount, totalTime);
+		return passed;
+	}
+
+	/**
+	 * Prints the given count with the time it took and the number of
+	 * Positions per second
+	 * @param label the label of the count
+	 * @param count the number of Positions counted
+	 * @param nanos the time taken in nanoseconds
+	 */
+	private static void report(String label, long count, long nanos)
+	{
+		System.out.printf("%-52s %12d nodes %8.3f s %12.0f nps%n", label,
+				count, nanos / 1e9, count * 1e9 / Math.max(1, nanos));
+	}
+
+	/**
+	 * Counts the Positions reached from the given Position by every sequence
+	 * of legal moves of the given length, splitting the root moves across the
+	 * given number of threads, each with its own copy of the Position
+	 * @param position the Position to count from
+	 * @param depth the number of moves in each sequence
+	 * @param threads the number of threads to count on
+	 * @return the number of Positions
+	 * @throws InterruptedException if a parallel count is interrupted
+	 */
+	public static long count(final Position position, final int depth,
+			int threads) throws InterruptedException
+	{
+		if (threads <= 1 || depth <= 1)
+			return new Perft().perft(position, depth);
+
+		int[] moves = new int[Position.MAX_MOVES];
+		int moveCount = position.generateLegalMoves(moves);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try
+		{
+			List<Future<Long>> counts = new ArrayList<Future<Long>>();
+			for (int next = 0; next < moveCount; next++)
+			{
+				final int move = moves[next];
+				counts.add(pool.submit(new Callable<Long>()
+				{
+					@Override
+					public Long call()
+					{
+						Position copy = new Position(position);
+						copy.makeMove(move);
+						return new Perft().perft(copy, depth - 1);
+					}
+				}));
+			}
+
+			long total = 0;
+			for (Future<Long> count : counts)
+				total += count.get();
+			return total;
+		}
+		catch (ExecutionException e)
+		{
+			throw new IllegalStateException(e.getCause());
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Constructs a Perft counter with a move buffer for each ply
+	 */
+	public Perft()
+	{
+		moveBuffers = new int[Search.MAX_DEPTH + 1][Position.MAX_MOVES];
+	}
+
+	/**
+	 * Counts the Positions reached from the given Position by every sequence
+	 * of legal moves of the given length. The last moves are counted rather
+	 * than made, since they are all legal
+	 * @param position the Position to count from
+	 * @param depth the number of moves in each sequence
+	 * @return the number of Positions
+	 */
+	public long perft(Position position, int depth)
+	{
+		if (depth == 0)
+			return 1;
+		int[] moves = moveBuffers[depth];
+		int count = position.generateLegalMoves(moves);
+		if (depth == 1)
+			return count;
+
+		long total = 0;
+		for (int next = 0; next < count; next++)
+		{
+			position.makeMove(moves[next]);
+			total += perft(position, depth - 1);
+			position.unmakeMove(moves[next]);
+		}
+		return total;
+	}
+
+	/**
+	 * Prints the number of Positions reached after each legal move of the
+	 * given Position, and their total
+	 * @param position the Position to count from
+	 * @param depth the number of moves in each sequence, at least 1
+	 */
+	public void divide(Position position, int depth)
+	{
+		int[] moves = new int[Position.MAX_MOVES];
+		int count = position.generateLegalMoves(moves);
+		long total = 0;
+		long start = System.nanoTime();
+		for (int next = 0; next < count; next++)
+		{
+			position.makeMove(moves[next]);
+			long moveCount = perft(position, depth - 1);
+			position.unmakeMove(moves[next]);
+			System.out.println(Position.moveToString(moves[next]) + ": "
+					+ moveCount);
+			total += moveCount;
+		}
+		report("divide " + depth + " (" + count + " moves)", total,
+				System.nanoTime() - start);
+	}
+}
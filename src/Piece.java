@@ -3,6 +3,10 @@ import java.awt.Image;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.swing.ImageIcon;
 
 /**
  * Keeps track of an abstract Piece class for a game of Chess, including its
@@ -20,6 +24,10 @@ public abstract class Piece extends Rectangle
 {
 	private static final long serialVersionUID = 1L;
 
+	// Keep track of the images of the pieces by their file names, so that each
+	// image is only loaded once for all the pieces that use it
+	private static final Map<String, Image> IMAGES = new HashMap<String, Image>();
+
 	// Keep track of the row, column, color and image of this Piece and whether
 	// it is captured and has been moved
 	protected int originalRow;
@@ -60,6 +68,23 @@ public abstract class Piece extends Rectangle
 		hasMoved = false;
 	}
 
+	/**
+	 * Gets the image of a piece from the given file, loading it only the first
+	 * time it is needed
+	 * @param fileName the name of the file of the image
+	 * @return the Image in the given file
+	 */
+	protected static synchronized Image getImage(String fileName)
+	{
+		Image image = IMAGES.get(fileName);
+		if (image == null)
+		{
+			image = new ImageIcon(fileName).getImage();
+			IMAGES.put(fileName, image);
+		}
+		return image;
+	}
+
 	/**
 	 * Draws this Piece given a Graphics object
 	 * @param g the Graphics object to draw this Piece with
@@ -0,0 +1,1073 @@
+/**
+ * Keeps track of a Position in a game of Chess as a set of bitboards, one for
+ * each type and color of piece, along with the occupancy of each side, the
+ * side to move, the castling rights, the en passant Square and the half move
+ * clock. Square indices follow the Square[][] board of the Board class (row *
+ * 8 + column). The computer searches on a Position rather than on the Squares
+ * and Pieces of the Board, which are only used to draw the game. Includes
+ * methods to add and remove pieces, to generate the legal moves (or only the
+ * legal captures) of the side to move, to make and unmake a move (or a null
+ * move that only passes the turn) using a fixed size undo stack, and to check
+ * whether a Square is attacked, a King is in check or a Position is repeated
+ * @author Siddharth Vaknalli and Sean Marchand
+ * @version Sunday, October 18, 2026
+ */
+public class Position
+{
+	// Colors of the pieces, matching the colors of the Piece class
+	public static final int WHITE = 0;
+	public static final int BLACK = 1;
+
+	// Types of pieces
+	public static final int PAWN = 0;
+	public static final int KNIGHT = 1;
+	public static final int BISHOP = 2;
+	public static final int ROOK = 3;
+	public static final int QUEEN = 4;
+	public static final int KING = 5;
+	public static final int EMPTY = -1;
+
+	// Castling rights of each side
+	public static final int WHITE_KING_SIDE = 1;
+	public static final int WHITE_QUEEN_SIDE = 2;
+	public static final int BLACK_KING_SIDE = 4;
+	public static final int BLACK_QUEEN_SIDE = 8;
+
+	// Flags of a move, packed into an integer along with the Squares it is
+	// made from and to (bits 0 to 11) and the type of piece a Pawn is
+	// promoted to (bits 12 to 14, 0 if it is not a promotion)
+	public static final int CAPTURE_FLAG = 1 << 15;
+	public static final int DOUBLE_PUSH_FLAG = 1 << 16;
+	public static final int EN_PASSANT_FLAG = 1 << 17;
+	public static final int CASTLING_FLAG = 1 << 18;
+
+	// The most moves that can be generated from any Position, and the most
+	// moves that can be made in a Position before they are unmade
+	public static final int MAX_MOVES = 256;
+	public static final int MAX_UNDO = 1024;
+
+	// The starting Position of a game in Forsyth-Edwards Notation
+	public static final String STARTING_FEN =
+			"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+	// Squares of the Kings and Rooks involved in castling
+	private static final int WHITE_KING_START = 60;
+	private static final int BLACK_KING_START = 4;
+
+	// The castling rights kept when a piece moves from or to each Square
+	private static final int[] CASTLING_MASK = new int[64];
+
+	static
+	{
+		for (int square = 0; square < 64; square++)
+			CASTLING_MASK[square] = 15;
+		CASTLING_MASK[56] &= ~WHITE_QUEEN_SIDE;
+		CASTLING_MASK[63] &= ~WHITE_KING_SIDE;
+		CASTLING_MASK[WHITE_KING_START] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+		CASTLING_MASK[0] &= ~BLACK_QUEEN_SIDE;
+		CASTLING_MASK[7] &= ~BLACK_KING_SIDE;
+		CASTLING_MASK[BLACK_KING_START] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+	}
+
+	// Keep track of the bitboards of each type of piece of each color, the
+	// bitboards of all pieces of each color and of all pieces, and the type of
+	// the piece on each Square
+	private long[][] pieces;
+	private long[] occupancy;
+	private long allPieces;
+	private int[] pieceOn;
+
+	// Keep track of the Square of the King of each color, so that checks can
+	// be found without searching the bitboards
+	private int[] kingSquares;
+
+	// Keep track of the state of the game that is not given by the pieces
+	private int sideToMove;
+	private int castlingRights;
+	private int enPassantSquare;
+	private int halfmoveClock;
+
+	// Keep track of the Zobrist key of this Position and of the value and
+	// positional score of all its pieces (positive if it favors white), both
+	// updated as pieces are added and removed and as moves are made
+	private long key;
+	private int pieceScore;
+
+	// Keep track of the Squares a piece other than the King must move to when
+	// the side to move is in check (every Square if it is not, none if it is
+	// checked twice) and the pieces of the side to move pinned to their King,
+	// as computed for the last legal moves generated
+	private long checkMask;
+	private long pinned;
+
+	// Keep track of a fixed size stack of the state needed to unmake each
+	// move made: the captured piece, the castling rights, the en passant
+	// Square, the half move clock and the key
+	private int[] undoCaptured;
+	private int[] undoCastlingRights;
+	private int[] undoEnPassantSquare;
+	private int[] undoHalfmoveClock;
+	private long[] undoKey;
+	private int undoCount;
+
+	/**
+	 * Constructs an empty Position with white to move
+	 */
+	public Position()
+	{
+		pieces = new long[2][6];
+		occupancy = new long[2];
+		pieceOn = new int[64];
+		kingSquares = new int[2];
+		createUndoStack();
+		clear();
+	}
+
+	/**
+	 * Constructs a copy of the given Position, with an empty undo stack
+	 * @param other the Position to copy
+	 */
+	public Position(Position other)
+	{
+		pieces = new long[2][6];
+		occupancy = new long[2];
+		pieceOn = new int[64];
+		kingSquares = new int[2];
+		createUndoStack();
+		copyFrom(other);
+	}
+
+	/**
+	 * Makes this Position a copy of the given Position, with an empty undo
+	 * stack, without creating any new arrays
+	 * @param other the Position to copy
+	 */
+	public void copyFrom(Position other)
+	{
+		for (int color = WHITE; color <= BLACK; color++)
+			System.arraycopy(other.pieces[color], 0, pieces[color], 0, 6);
+		System.arraycopy(other.occupancy, 0, occupancy, 0, 2);
+		System.arraycopy(other.pieceOn, 0, pieceOn, 0, 64);
+		System.arraycopy(other.kingSquares, 0, kingSquares, 0, 2);
+		allPieces = other.allPieces;
+		sideToMove = other.sideToMove;
+		castlingRights = other.castlingRights;
+		enPassantSquare = other.enPassantSquare;
+		halfmoveClock = other.halfmoveClock;
+		key = other.key;
+		pieceScore = other.pieceScore;
+		undoCount = 0;
+	}
+
+	/**
+	 * Forgets the moves made so far, emptying the undo stack, so that the
+	 * moves of a game that are never unmade do not fill it up
+	 */
+	public void clearHistory()
+	{
+		undoCount = 0;
+	}
+
+	/**
+	 * Creates the arrays of the undo stack
+	 */
+	private void createUndoStack()
+	{
+		undoCaptured = new int[MAX_UNDO];
+		undoCastlingRights = new int[MAX_UNDO];
+		undoEnPassantSquare = new int[MAX_UNDO];
+		undoHalfmoveClock = new int[MAX_UNDO];
+		undoKey = new long[MAX_UNDO];
+	}
+
+	/**
+	 * Removes all the pieces from this Position and resets the state of the
+	 * game so that white is to move, with no castling rights and no en passant
+	 * Square
+	 */
+	public void clear()
+	{
+		for (int color = WHITE; color <= BLACK; color++)
+		{
+			for (int type = PAWN; type <= KING; type++)
+				pieces[color][type] = 0L;
+			occupancy[color] = 0L;
+			kingSquares[color] = -1;
+		}
+		allPieces = 0L;
+		for (int square = 0; square < 64; square++)
+			pieceOn[square] = EMPTY;
+
+		sideToMove = WHITE;
+		castlingRights = 0;
+		enPassantSquare = -1;
+		halfmoveClock = 0;
+		key = 0L;
+		pieceScore = 0;
+		undoCount = 0;
+	}
+
+	/**
+	 * Sets up the starting Position of a game of Chess
+	 */
+	public void setStartingPosition()
+	{
+		setFen(STARTING_FEN);
+	}
+
+	/**
+	 * Sets up the Position given in Forsyth-Edwards Notation. The rows of the
+	 * notation are given from the back row of the black pieces, which is row
+	 * 0 of this Position. The half move clock is optional
+	 * @param fen the Position in Forsyth-Edwards Notation
+	 * @throws IllegalArgumentException if the notation is not valid
+	 */
+	public void setFen(String fen)
+	{
+		String[] fields = fen.trim().split("\\s+");
+		if (fields.length < 4)
+			throw new IllegalArgumentException("Invalid FEN: " + fen);
+		clear();
+
+		// Add the pieces of each row, skipping the number of empty Squares
+		// given by each digit
+		int square = 0;
+		for (int next = 0; next < fields[0].length(); next++)
+		{
+			char symbol = fields[0].charAt(next);
+			int type = "pnbrqk".indexOf(Character.toLowerCase(symbol));
+			if (symbol == '/')
+				continue;
+			else if (symbol >= '1' && symbol <= '8')
+				square += symbol - '0';
+			else if (type >= 0 && square < 64)
+				putPiece(Character.isUpperCase(symbol) ? WHITE : BLACK, type,
+						square++);
+			else
+				throw new IllegalArgumentException("Invalid FEN: " + fen);
+		}
+		if (square != 64 || kingSquares[WHITE] < 0 || kingSquares[BLACK] < 0)
+			throw new IllegalArgumentException("Invalid FEN: " + fen);
+
+		setSideToMove(fields[1].equals("b") ? BLACK : WHITE);
+
+		int rights = 0;
+		if (fields[2].indexOf('K') >= 0)
+			rights |= WHITE_KING_SIDE;
+		if (fields[2].indexOf('Q') >= 0)
+			rights |= WHITE_QUEEN_SIDE;
+		if (fields[2].indexOf('k') >= 0)
+			rights |= BLACK_KING_SIDE;
+		if (fields[2].indexOf('q') >= 0)
+			rights |= BLACK_QUEEN_SIDE;
+		setCastlingRights(rights);
+
+		// The en passant Square is given by its column letter and its rank,
+		// which counts rows from the back row of the white pieces
+		if (!fields[3].equals("-"))
+		{
+			if (fields[3].length() != 2)
+				throw new IllegalArgumentException("Invalid FEN: " + fen);
+			int column = fields[3].charAt(0) - 'a';
+			int row = '8' - fields[3].charAt(1);
+			if (column < 0 || column > 7 || row < 0 || row > 7)
+				throw new IllegalArgumentException("Invalid FEN: " + fen);
+			setEnPassantSquare(row * 8 + column);
+		}
+
+		if (fields.length > 4)
+		{
+			try
+			{
+				halfmoveClock = Integer.parseInt(fields[4]);
+			}
+			catch (NumberFormatException e)
+			{
+				throw new IllegalArgumentException("Invalid FEN: " + fen);
+			}
+		}
+	}
+
+	/**
+	 * Adds a piece of the given color and type to the given empty Square
+	 * @param color the color of the piece
+	 * @param type the type of the piece
+	 * @param square the Square to add the piece to
+	 */
+	public void putPiece(int color, int type, int square)
+	{
+		long bit = 1L << square;
+		pieces[color][type] |= bit;
+		occupancy[color] |= bit;
+		allPieces |= bit;
+		pieceOn[square] = type;
+		if (type == KING)
+			kingSquares[color] = square;
+		key ^= Zobrist.PIECE_KEYS[color][type][square];
+		pieceScore += Evaluation.PIECE_SQUARE_SCORES[color][type][square];
+	}
+
+	/**
+	 * Removes the piece on the given Square
+	 * @param square the Square to remove the piece from, which must contain a
+	 *            piece
+	 */
+	public void removePiece(int square)
+	{
+		long bit = 1L << square;
+		int color = colorAt(square);
+		key ^= Zobrist.PIECE_KEYS[color][pieceOn[square]][square];
+		pieceScore -= Evaluation.PIECE_SQUARE_SCORES[color][pieceOn[square]][square];
+		pieces[color][pieceOn[square]] &= ~bit;
+		occupancy[color] &= ~bit;
+		allPieces &= ~bit;
+		pieceOn[square] = EMPTY;
+	}
+
+	/**
+	 * Gets the type of the piece captured by the given move, including a Pawn
+	 * captured en passant
+	 * @param move the move, generated from this Position
+	 * @return the type of the captured piece, or EMPTY if the move is not a
+	 *         capture
+	 */
+	public int capturedPiece(int move)
+	{
+		if ((move & EN_PASSANT_FLAG) != 0)
+			return PAWN;
+		return pieceOn[to(move)];
+	}
+
+	/**
+	 * Checks whether the given move promotes a Pawn
+	 * @param move the move as an integer
+	 * @return true if the move takes a Pawn to the last row, false otherwise
+	 */
+	public static boolean isPromotion(int move)
+	{
+		return ((move >>> 12) & 7) != 0;
+	}
+
+	/**
+	 * Gets the type of the piece on the given Square
+	 * @param square the Square to check
+	 * @return the type of the piece on the Square, or EMPTY if there is none
+	 */
+	public int pieceAt(int square)
+	{
+		return pieceOn[square];
+	}
+
+	/**
+	 * Gets the color of the piece on the given Square
+	 * @param square the Square to check, which must contain a piece
+	 * @return the color of the piece on the Square
+	 */
+	public int colorAt(int square)
+	{
+		return (occupancy[WHITE] & (1L << square)) != 0 ? WHITE : BLACK;
+	}
+
+	/**
+	 * Gets the bitboard of all the pieces of the given color and type
+	 * @param color the color of the pieces
+	 * @param type the type of the pieces
+	 * @return the bitboard of the pieces
+	 */
+	public long getPieces(int color, int type)
+	{
+		return pieces[color][type];
+	}
+
+	/**
+	 * Gets the bitboard of all the pieces of the given color
+	 * @param color the color of the pieces
+	 * @return the bitboard of the pieces
+	 */
+	public long getOccupancy(int color)
+	{
+		return occupancy[color];
+	}
+
+	/**
+	 * Gets the color of the side to move
+	 * @return the color of the side to move
+	 */
+	public int getSideToMove()
+	{
+		return sideToMove;
+	}
+
+	/**
+	 * Sets the color of the side to move
+	 * @param color the color of the side to move
+	 */
+	public void setSideToMove(int color)
+	{
+		if (color != sideToMove)
+			key ^= Zobrist.SIDE_KEY;
+		sideToMove = color;
+	}
+
+	/**
+	 * Sets the castling rights of both sides
+	 * @param rights the castling rights, a combination of the castling flags
+	 */
+	public void setCastlingRights(int rights)
+	{
+		key ^= Zobrist.CASTLING_KEYS[castlingRights]
+				^ Zobrist.CASTLING_KEYS[rights];
+		castlingRights = rights;
+	}
+
+	/**
+	 * Sets the Square a Pawn can move to when capturing en passant
+	 * @param square the en passant Square, or -1 if there is none
+	 */
+	public void setEnPassantSquare(int square)
+	{
+		key ^= enPassantKey(enPassantSquare) ^ enPassantKey(square);
+		enPassantSquare = square;
+	}
+
+	/**
+	 * Gets the Zobrist key of this Position
+	 * @return the key of this Position
+	 */
+	public long getKey()
+	{
+		return key;
+	}
+
+	/**
+	 * Checks whether this Position has already been reached since the undo
+	 * stack was last emptied, by looking for its key among the Positions
+	 * with the same side to move. Only the Positions since the last capture,
+	 * Pawn move or null move are looked at, since none before them can be
+	 * reached again
+	 * @return true if this Position is a repetition, false otherwise
+	 */
+	public boolean isRepetition()
+	{
+		int oldest = undoCount - Math.min(halfmoveClock, undoCount);
+		for (int next = undoCount - 4; next >= oldest; next -= 2)
+			if (undoKey[next] == key)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Gets the value and positional score of all the pieces of this Position,
+	 * kept up to date as pieces are added and removed
+	 * @return the score of the pieces, positive if it favors white
+	 */
+	public int getPieceScore()
+	{
+		return pieceScore;
+	}
+
+	/**
+	 * Gets the part of the Zobrist key given by an en passant Square
+	 * @param square the en passant Square, or -1 if there is none
+	 * @return the key of the column of the Square, or 0 if there is none
+	 */
+	private static long enPassantKey(int square)
+	{
+		if (square < 0)
+			return 0L;
+		return Zobrist.EN_PASSANT_KEYS[Bitboard.column(square)];
+	}
+
+	/**
+	 * Gets the Square of the King of the given color
+	 * @param color the color of the King
+	 * @return the Square of the King
+	 */
+	public int kingSquare(int color)
+	{
+		return kingSquares[color];
+	}
+
+	/**
+	 * Checks whether the given Square is attacked by any piece of the given
+	 * color, by looking outward from the Square for each type of piece
+	 * @param square the Square to check
+	 * @param byColor the color of the attacking pieces
+	 * @return true if the Square is attacked, false otherwise
+	 */
+	public boolean isSquareAttacked(int square, int byColor)
+	{
+		return isSquareAttacked(square, byColor, allPieces);
+	}
+
+	/**
+	 * Checks whether the given Square is attacked by any piece of the given
+	 * color if only the given Squares were occupied
+	 * @param square the Square to check
+	 * @param byColor the color of the attacking pieces
+	 * @param occupied the bitboard of the Squares blocking sliding pieces
+	 * @return true if the Square is attacked, false otherwise
+	 */
+	private boolean isSquareAttacked(int square, int byColor, long occupied)
+	{
+		long[] attackers = pieces[byColor];
+
+		// A Pawn attacks this Square if a Pawn of the other color on this
+		// Square would attack it
+		if ((Bitboard.PAWN_ATTACKS[1 - byColor][square] & attackers[PAWN]) != 0)
+			return true;
+		if ((Bitboard.KNIGHT_ATTACKS[square] & attackers[KNIGHT]) != 0)
+			return true;
+		if ((Bitboard.KING_ATTACKS[square] & attackers[KING]) != 0)
+			return true;
+		if ((Bitboard.bishopAttacks(square, occupied) & (attackers[BISHOP] | attackers[QUEEN])) != 0)
+			return true;
+		return (Bitboard.rookAttacks(square, occupied) & (attackers[ROOK] | attackers[QUEEN])) != 0;
+	}
+
+	/**
+	 * Checks whether the given side has any pieces other than its Pawns and
+	 * King. A side with only Pawns is often in zugzwang, where any move it
+	 * makes is worse than passing the turn
+	 * @param color the color of the pieces
+	 * @return true if the side has a Knight, Bishop, Rook or Queen, false
+	 *         otherwise
+	 */
+	public boolean hasPiecesOtherThanPawns(int color)
+	{
+		return (occupancy[color] & ~pieces[color][PAWN]
+				& ~pieces[color][KING]) != 0;
+	}
+
+	/**
+	 * Checks whether the King of the given color is in check, by looking
+	 * outward from its Square for attacking pieces
+	 * @param color the color of the King
+	 * @return true if the King is attacked by an opponent piece, false
+	 *         otherwise
+	 */
+	public boolean inCheck(int color)
+	{
+		return isSquareAttacked(kingSquare(color), 1 - color);
+	}
+
+	/**
+	 * Encodes a move from the given Square to the given Square as an integer
+	 * @param from the Square to move from
+	 * @param to the Square to move to
+	 * @param promotion the type of piece a Pawn is promoted to, or EMPTY
+	 * @param flags the flags of the move (CAPTURE_FLAG, DOUBLE_PUSH_FLAG,
+	 *            EN_PASSANT_FLAG and CASTLING_FLAG), or 0 for none
+	 * @return the move as an integer
+	 */
+	public static int move(int from, int to, int promotion, int flags)
+	{
+		if (promotion == EMPTY)
+			promotion = 0;
+		return from | (to << 6) | (promotion << 12) | flags;
+	}
+
+	/**
+	 * Gets the Square the given move is made from
+	 * @param move the move as an integer
+	 * @return the Square to move from
+	 */
+	public static int from(int move)
+	{
+		return move & 63;
+	}
+
+	/**
+	 * Gets the Square the given move is made to
+	 * @param move the move as an integer
+	 * @return the Square to move to
+	 */
+	public static int to(int move)
+	{
+		return (move >>> 6) & 63;
+	}
+
+	/**
+	 * Gets the type of piece a Pawn is promoted to by the given move
+	 * @param move the move as an integer
+	 * @return the type of the promoted piece, or EMPTY if the move is not a
+	 *         promotion
+	 */
+	public static int promotion(int move)
+	{
+		int type = (move >>> 12) & 7;
+		return type == 0 ? EMPTY : type;
+	}
+
+	/**
+	 * Gets the given move in the long algebraic notation used by the
+	 * Universal Chess Interface, such as e2e4 or e7e8q. Rows are numbered
+	 * from the back row of the white pieces
+	 * @param move the move as an integer, or 0 for no move
+	 * @return the move as a String, or 0000 for no move
+	 */
+	public static String moveToString(int move)
+	{
+		if (move == 0)
+			return "0000";
+		StringBuilder text = new StringBuilder(5);
+		for (int square : new int[] { from(move), to(move) })
+			text.append((char) ('a' + Bitboard.column(square))).append(
+					(char) ('8' - Bitboard.row(square)));
+		if (promotion(move) != EMPTY)
+			text.append("pnbrqk".charAt(promotion(move)));
+		return text.toString();
+	}
+
+	/**
+	 * Generates only the legal moves of the side to move into the given array,
+	 * so that none of them leaves the King of the side to move in check
+	 * @param moves the array to store the moves in, of at least MAX_MOVES
+	 * @return the number of moves generated
+	 */
+	public int generateLegalMoves(int[] moves)
+	{
+		return removeIllegalMoves(moves, generateMoves(moves, false));
+	}
+
+	/**
+	 * Generates only the legal captures and promotions of the side to move
+	 * into the given array
+	 * @param moves the array to store the moves in, of at least MAX_MOVES
+	 * @return the number of moves generated
+	 */
+	public int generateLegalCaptures(int[] moves)
+	{
+		return removeIllegalMoves(moves, generateMoves(moves, true));
+	}
+
+	/**
+	 * Finds the legal move of the side to move given in the long algebraic
+	 * notation used by the Universal Chess Interface
+	 * @param text the move as a String, such as e2e4 or e7e8q
+	 * @return the legal move as an integer, or 0 if it is not a legal move
+	 */
+	public int parseMove(String text)
+	{
+		int[] moves = new int[MAX_MOVES];
+		int count = generateLegalMoves(moves);
+		for (int next = 0; next < count; next++)
+			if (moveToString(moves[next]).equals(text))
+				return moves[next];
+		return 0;
+	}
+
+	/**
+	 * Removes the moves that leave the King of the side to move in check from
+	 * the given moves, keeping the order of the remaining moves
+	 * @param moves the moves generated from this Position
+	 * @param count the number of moves
+	 * @return the number of legal moves left at the start of the array
+	 */
+	private int removeIllegalMoves(int[] moves, int count)
+	{
+		findPinsAndChecks();
+		int legal = 0;
+		for (int next = 0; next < count; next++)
+			if (isLegal(moves[next]))
+				moves[legal++] = moves[next];
+		return legal;
+	}
+
+	/**
+	 * Finds the pieces of the side to move that are pinned to their King and
+	 * the Squares that can block or capture a piece giving check, once for
+	 * all the moves generated from this Position
+	 */
+	private void findPinsAndChecks()
+	{
+		int us = sideToMove;
+		int them = 1 - us;
+		int king = kingSquare(us);
+		long[] enemies = pieces[them];
+		long diagonal = enemies[BISHOP] | enemies[QUEEN];
+		long straight = enemies[ROOK] | enemies[QUEEN];
+
+		// A single check can be blocked or its piece captured, while a double
+		// check can only be escaped by moving the King
+		long checkers = (Bitboard.PAWN_ATTACKS[us][king] & enemies[PAWN])
+				| (Bitboard.KNIGHT_ATTACKS[king] & enemies[KNIGHT])
+				| (Bitboard.bishopAttacks(king, allPieces) & diagonal)
+				| (Bitboard.rookAttacks(king, allPieces) & straight);
+		if (checkers == 0)
+			checkMask = -1L;
+		else if ((checkers & (checkers - 1)) == 0)
+			checkMask = checkers | Bitboard.BETWEEN[king][Bitboard.first(checkers)];
+		else
+			checkMask = 0L;
+
+		// A piece is pinned if it is the only piece between its King and an
+		// opponent sliding piece that would attack the King without it
+		pinned = 0L;
+		long snipers = (Bitboard.bishopAttacks(king, occupancy[them]) & diagonal)
+				| (Bitboard.rookAttacks(king, occupancy[them]) & straight);
+		while (snipers != 0)
+		{
+			long blockers = Bitboard.BETWEEN[king][Bitboard.first(snipers)]
+					& allPieces;
+			snipers &= snipers - 1;
+			if ((blockers & (blockers - 1)) == 0)
+				pinned |= blockers & occupancy[us];
+		}
+	}
+
+	/**
+	 * Checks whether the given move of the side to move does not leave its
+	 * King in check, using the pins and checks found beforehand
+	 * @param move the move as an integer
+	 * @return true if the move is legal, false otherwise
+	 */
+	private boolean isLegal(int move)
+	{
+		int from = from(move);
+		int to = to(move);
+		int us = sideToMove;
+		long toBit = 1L << to;
+
+		// The King may not move to an attacked Square, including Squares
+		// attacked through its own Square along the line of a sliding piece
+		if (pieceOn[from] == KING)
+			return !isSquareAttacked(to, 1 - us, allPieces ^ (1L << from));
+
+		// En passant removes two pieces from a line, so it is rare enough to
+		// be tested by playing it
+		if ((move & EN_PASSANT_FLAG) != 0)
+		{
+			makeMove(move);
+			boolean legal = !inCheck(us);
+			unmakeMove(move);
+			return legal;
+		}
+
+		if ((toBit & checkMask) == 0)
+			return false;
+		return (pinned & (1L << from)) == 0
+				|| (Bitboard.LINE[kingSquare(us)][from] & toBit) != 0;
+	}
+
+	/**
+	 * Generates the moves of the side to move into the given array, including
+	 * castling and en passant moves. The moves may leave the King of the side
+	 * to move in check, which removeIllegalMoves tests
+	 * @param moves the array to store the moves in, of at least MAX_MOVES
+	 * @param capturesOnly whether to generate only captures and promotions
+	 * @return the number of moves generated
+	 */
+	private int generateMoves(int[] moves, boolean capturesOnly)
+	{
+		int count = 0;
+		int us = sideToMove;
+		int them = 1 - us;
+		long own = occupancy[us];
+		long targets = capturesOnly ? occupancy[them] : ~own;
+
+		// Pawns move one Square ahead (or two from their original row) and
+		// capture diagonally, including en passant
+		long pawns = pieces[us][PAWN];
+		int forward = us == WHITE ? -8 : 8;
+		int startRow = us == WHITE ? 6 : 1;
+		int promotionRow = us == WHITE ? 0 : 7;
+		long captureTargets = occupancy[them];
+		if (enPassantSquare >= 0)
+			captureTargets |= 1L << enPassantSquare;
+		while (pawns != 0)
+		{
+			int from = Bitboard.first(pawns);
+			pawns &= pawns - 1;
+			int to = from + forward;
+			if (pieceOn[to] == EMPTY)
+			{
+				if (Bitboard.row(to) == promotionRow)
+					count = addPromotions(moves, count, from, to, 0,
+							capturesOnly);
+				else if (!capturesOnly)
+				{
+					moves[count++] = move(from, to, EMPTY, 0);
+					if (Bitboard.row(from) == startRow
+							&& pieceOn[to + forward] == EMPTY)
+						moves[count++] = move(from, to + forward, EMPTY,
+								DOUBLE_PUSH_FLAG);
+				}
+			}
+			long captures = Bitboard.PAWN_ATTACKS[us][from] & captureTargets;
+			while (captures != 0)
+			{
+				int target = Bitboard.first(captures);
+				captures &= captures - 1;
+				if (target == enPassantSquare)
+					moves[count++] = move(from, target, EMPTY, CAPTURE_FLAG
+							| EN_PASSANT_FLAG);
+				else if (Bitboard.row(target) == promotionRow)
+					count = addPromotions(moves, count, from, target,
+							CAPTURE_FLAG, capturesOnly);
+				else
+					moves[count++] = move(from, target, EMPTY, CAPTURE_FLAG);
+			}
+		}
+
+		// Knights, Bishops, Rooks, Queens and the King move to any attacked
+		// Square that does not contain a piece of the same color (or only to
+		// those containing an opponent piece when generating captures)
+		for (int type = KNIGHT; type <= KING; type++)
+		{
+			long movers = pieces[us][type];
+			while (movers != 0)
+			{
+				int from = Bitboard.first(movers);
+				movers &= movers - 1;
+				long attacks;
+				if (type == KNIGHT)
+					attacks = Bitboard.KNIGHT_ATTACKS[from];
+				else if (type == BISHOP)
+					attacks = Bitboard.bishopAttacks(from, allPieces);
+				else if (type == ROOK)
+					attacks = Bitboard.rookAttacks(from, allPieces);
+				else if (type == QUEEN)
+					attacks = Bitboard.queenAttacks(from, allPieces);
+				else
+					attacks = Bitboard.KING_ATTACKS[from];
+				attacks &= targets;
+				while (attacks != 0)
+				{
+					int target = Bitboard.first(attacks);
+					attacks &= attacks - 1;
+					moves[count++] = move(from, target, EMPTY,
+							pieceOn[target] == EMPTY ? 0 : CAPTURE_FLAG);
+				}
+			}
+		}
+
+		if (capturesOnly)
+			return count;
+
+		// The King can castle if neither it nor the Rook has moved, the
+		// Squares between them are empty and the King does not move out of,
+		// through or into a check
+		int kingStart = us == WHITE ? WHITE_KING_START : BLACK_KING_START;
+		int kingSide = us == WHITE ? WHITE_KING_SIDE : BLACK_KING_SIDE;
+		int queenSide = us == WHITE ? WHITE_QUEEN_SIDE : BLACK_QUEEN_SIDE;
+		if ((castlingRights & (kingSide | queenSide)) != 0
+				&& !isSquareAttacked(kingStart, them))
+		{
+			if ((castlingRights & kingSide) != 0
+					&& pieceOn[kingStart + 1] == EMPTY
+					&& pieceOn[kingStart + 2] == EMPTY
+					&& !isSquareAttacked(kingStart + 1, them)
+					&& !isSquareAttacked(kingStart + 2, them))
+				moves[count++] = move(kingStart, kingStart + 2, EMPTY,
+						CASTLING_FLAG);
+			if ((castlingRights & queenSide) != 0
+					&& pieceOn[kingStart - 1] == EMPTY
+					&& pieceOn[kingStart - 2] == EMPTY
+					&& pieceOn[kingStart - 3] == EMPTY
+					&& !isSquareAttacked(kingStart - 1, them)
+					&& !isSquareAttacked(kingStart - 2, them))
+				moves[count++] = move(kingStart, kingStart - 2, EMPTY,
+						CASTLING_FLAG);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Adds the promotions of a Pawn moving from and to the given Squares to
+	 * the given moves: to a Queen, and unless only captures and promotions
+	 * are generated, to a Rook, a Bishop and a Knight as well
+	 * @param moves the array to store the moves in
+	 * @param count the number of moves already stored
+	 * @param from the Square the Pawn moves from
+	 * @param to the Square the Pawn moves to, on the last row
+	 * @param flags the flags of the move
+	 * @param queenOnly whether to add only the promotion to a Queen
+	 * @return the number of moves stored after adding the promotions
+	 */
+	private static int addPromotions(int[] moves, int count, int from, int to,
+			int flags, boolean queenOnly)
+	{
+		moves[count++] = move(from, to, QUEEN, flags);
+		if (!queenOnly)
+		{
+			moves[count++] = move(from, to, ROOK, flags);
+			moves[count++] = move(from, to, BISHOP, flags);
+			moves[count++] = move(from, to, KNIGHT, flags);
+		}
+		return count;
+	}
+
+	/**
+	 * Makes the given move in this Position, moving the Rook when castling,
+	 * removing the captured Pawn when capturing en passant and promoting Pawns
+	 * that reach the last row to the piece given by the move. Also updates the
+	 * castling rights, the en passant Square, the half move clock and the side
+	 * to move, and pushes everything needed to take the move back onto the
+	 * undo stack
+	 * @param move the move to make, generated from this Position
+	 */
+	public void makeMove(int move)
+	{
+		int from = from(move);
+		int to = to(move);
+		int us = sideToMove;
+		int type = pieceOn[from];
+		int captured = pieceOn[to];
+
+		// Save the state that cannot be recovered from the move itself
+		undoCaptured[undoCount] = captured;
+		undoCastlingRights[undoCount] = castlingRights;
+		undoEnPassantSquare[undoCount] = enPassantSquare;
+		undoHalfmoveClock[undoCount] = halfmoveClock;
+		undoKey[undoCount] = key;
+
+		// Remove any captured piece and move the piece
+		halfmoveClock++;
+		if (captured != EMPTY)
+		{
+			removePiece(to);
+			halfmoveClock = 0;
+		}
+		removePiece(from);
+
+		int newEnPassantSquare = -1;
+		if (type == PAWN)
+		{
+			halfmoveClock = 0;
+
+			// Capture the Pawn which has passed the en passant Square
+			if ((move & EN_PASSANT_FLAG) != 0)
+				removePiece(to + (us == WHITE ? 8 : -8));
+
+			// Record the Square passed over by a Pawn moving two Squares
+			if ((move & DOUBLE_PUSH_FLAG) != 0)
+				newEnPassantSquare = (from + to) / 2;
+
+			// Promote a Pawn on the last row to the piece given by the move
+			if (isPromotion(move))
+				type = promotion(move);
+		}
+		putPiece(us, type, to);
+		undoCount++;
+
+		// If the King is castling, move the Rook as well
+		if ((move & CASTLING_FLAG) != 0)
+		{
+			if (to > from)
+			{
+				removePiece(to + 1);
+				putPiece(us, ROOK, to - 1);
+			}
+			else
+			{
+				removePiece(to - 2);
+				putPiece(us, ROOK, to + 1);
+			}
+		}
+
+		// Update the rest of the state along with its part of the key
+		int newCastlingRights = castlingRights & CASTLING_MASK[from]
+				& CASTLING_MASK[to];
+		key ^= Zobrist.CASTLING_KEYS[castlingRights]
+				^ Zobrist.CASTLING_KEYS[newCastlingRights]
+				^ enPassantKey(enPassantSquare)
+				^ enPassantKey(newEnPassantSquare) ^ Zobrist.SIDE_KEY;
+		castlingRights = newCastlingRights;
+		enPassantSquare = newEnPassantSquare;
+		sideToMove = 1 - us;
+
+		// When assertions are enabled, check the kept score against the score
+		// of the pieces added up from scratch
+		assert pieceScore == Evaluation.evaluateFromScratch(this);
+	}
+
+	/**
+	 * Takes back the given move, which must be the last move made in this
+	 * Position, restoring the pieces and the state of the game from the undo
+	 * stack
+	 * @param move the last move made
+	 */
+	public void unmakeMove(int move)
+	{
+		int from = from(move);
+		int to = to(move);
+		int us = 1 - sideToMove;
+
+		undoCount--;
+		castlingRights = undoCastlingRights[undoCount];
+		enPassantSquare = undoEnPassantSquare[undoCount];
+		halfmoveClock = undoHalfmoveClock[undoCount];
+		sideToMove = us;
+
+		// Move the piece back, turning a promoted piece back into a Pawn
+		int type = isPromotion(move) ? PAWN : pieceOn[to];
+		removePiece(to);
+		putPiece(us, type, from);
+
+		// Restore any captured piece, which for an en passant capture is on
+		// the Square behind the one moved to
+		int captured = undoCaptured[undoCount];
+		if (captured != EMPTY)
+			putPiece(1 - us, captured, to);
+		else if ((move & EN_PASSANT_FLAG) != 0)
+			putPiece(1 - us, PAWN, to + (us == WHITE ? 8 : -8));
+
+		// Move the Rook back if the King was castling
+		if ((move & CASTLING_FLAG) != 0)
+		{
+			if (to > from)
+			{
+				removePiece(to - 1);
+				putPiece(us, ROOK, to + 1);
+			}
+			else
+			{
+				removePiece(to + 1);
+				putPiece(us, ROOK, to - 2);
+			}
+		}
+
+		// Restore the key saved on the undo stack
+		key = undoKey[undoCount];
+		assert pieceScore == Evaluation.evaluateFromScratch(this);
+	}
+
+	/**
+	 * Passes the turn to the other side without moving a piece, which the
+	 * search does to see whether the side to move is far enough ahead that
+	 * its moves need not be searched in full. Clears the en passant Square and
+	 * the half move clock and pushes the state of the game onto the undo
+	 * stack. The side to move must not be in check
+	 */
+	public void makeNullMove()
+	{
+		undoCaptured[undoCount] = EMPTY;
+		undoCastlingRights[undoCount] = castlingRights;
+		undoEnPassantSquare[undoCount] = enPassantSquare;
+		undoHalfmoveClock[undoCount] = halfmoveClock;
+		undoKey[undoCount] = key;
+		undoCount++;
+
+		// The Positions before a null move are not repeated by the moves after
+		// it, so the half move clock starts again
+		key ^= enPassantKey(enPassantSquare) ^ Zobrist.SIDE_KEY;
+		enPassantSquare = -1;
+		halfmoveClock = 0;
+		sideToMove = 1 - sideToMove;
+	}
+
+	/**
+	 * Takes back a null move, which must be the last move made in this
+	 * Position, restoring the state of the game from the undo stack
+	 */
+	public void unmakeNullMove()
+	{
+		undoCount--;
+		enPassantSquare = undoEnPassantSquare[undoCount];
+		halfmoveClock = undoHalfmoveClock[undoCount];
+		key = undoKey[undoCount];
+		sideToMove = 1 - sideToMove;
+	}
+}
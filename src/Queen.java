@@ -1,6 +1,5 @@
 import java.util.ArrayList;
 
-import javax.swing.ImageIcon;
 
 /**
  * Keeps track of a Queen class for a Chess game, and keeps track of its value
@@ -17,15 +16,9 @@ public class Queen extends Piece
 
 	private static final long serialVersionUID = 1L;
 
-	// Keep track of the value of the Queen and a score table to represent its
-	// score on the board according to its position
-	public int value = 1000;
-	private static int[][] queenScoreTable = {
-			{ -40, -20, -20, -20, -20, -20, -20, -40 },
-			{ 50, 50, 50, 50, 50, 50, 50, 50 }, { 0, 0, 0, 0, 0, 0, 0, 0 },
-			{ 50, 50, 50, 50, 50, 50, 50, 50 },
-			{ 50, 50, 50, 50, 50, 50, 50, 50 }, { 0, 0, 0, 0, 0, 0, 0, 0 },
-			{ 0, 0, 0, 0, 0, 0, 0, 0 }, { -40, 0, 0, 0, 0, 0, 0, -40 } };
+	// Keep track of the value of the Queen (its score table is kept by the
+	// Evaluation class)
+	public final int value = Evaluation.PIECE_VALUES[Position.QUEEN];
 
 	/**
 	 * Constructs a Queen given the row, columm and color
@@ -35,9 +28,8 @@ public class Queen extends Piece
 	 */
 	public Queen(int row, int column, int color)
 	{
-		super(row, column, color,
-				color == 0 ? new ImageIcon("Temp\\Queen0.png").getImage()
-						: new ImageIcon("Temp\\Queen1.png").getImage());
+		super(row, column, color, getImage(color == 0 ? "Temp\\Queen0.png"
+				: "Temp\\Queen1.png"));
 	}
 	
 	/**
@@ -46,11 +38,8 @@ public class Queen extends Piece
 	 */
 	public int getValue()
 	{
-		if (this.color == 0)
-		{
-			return value + queenScoreTable[this.row][this.column];
-		}
-		return value + queenScoreTable[7 - this.row][this.column];
+		return value
+				+ Evaluation.squareScore(Position.QUEEN, color, row, column);
 	}
 
 	/**
@@ -1,6 +1,5 @@
 import java.util.ArrayList;
 
-import javax.swing.ImageIcon;
 
 /**
  * A Rook piece for a Chess game, the piece has a value and can generate a list
@@ -16,14 +15,7 @@ public class Rook extends Piece {
 	 */
 	private static final long serialVersionUID = 1L;
 	// The value of the Rook
-	public int value = 500;
-	// The Rook is very valuable if it can get behind the opponents pawns
-	private static int[][] rookScoreTable = {
-			{ 20, 20, 20, 20, 20, 20, 20, 20 },
-			{ 50, 50, 50, 50, 50, 50, 50, 50 }, { 0, 0, 0, 0, 0, 0, 0, 0 },
-			{ 0, 0, 0, 0, 0, 0, 0, 0 }, { 0, 0, 0, 0, 0, 0, 0, 0 },
-			{ 0, 0, 0, 0, 0, 0, 0, 0 }, { 0, 0, 0, 0, 0, 0, 0, 0 },
-			{ 0, -20, -20, -20, -20, -20, -20, -20 } };
+	public final int value = Evaluation.PIECE_VALUES[Position.ROOK];
 
 	/**
 	 * Creates a Rook object
@@ -36,8 +28,8 @@ public class Rook extends Piece {
 	 *            The team the Rook is on
 	 */
 	public Rook(int row, int column, int color) {
-		super(row, column, color, color == 0 ? new ImageIcon("Temp\\Rook0.png")
-				.getImage() : new ImageIcon("Temp\\Rook1.png").getImage());
+		super(row, column, color, getImage(color == 0 ? "Temp\\Rook0.png"
+				: "Temp\\Rook1.png"));
 	}
 
 	/**
@@ -46,14 +38,8 @@ public class Rook extends Piece {
 	 * @return The value of the Rook based on its position and piece value
 	 */
 	public int getValue() {
-		// If the Rook is white
-		if (this.color == 0) {
-			return this.value + rookScoreTable[this.row][this.column];
-		}
-		// If the Rook is black, we must account for the flipping of the score
-		// table
-		return value + rookScoreTable[7 - this.row][this.column];
-
+		return value
+				+ Evaluation.squareScore(Position.ROOK, color, row, column);
 	}
 
 	/**
@@ -75,34 +61,6 @@ public class Rook extends Piece {
 		// Keep track of whether a Piece exists in the direction being checked
 		boolean pieceInCheckDirection = false;
 
-		// Keep track of whether the King of the same color as this Rook is in
-		// check. If it is, keep track of all the Squares that threaten it
-		King sameKing = null;
-		boolean sameKingInCheck = false;
-		ArrayList<Square> threatSquares = null;
-
-		// Go through the entire board given and find the King of the same color
-		// as this Rook. Then record whether it is in check. If it is, record
-		// all the Squares that threaten it
-		for (int checkRow = 0; checkRow < board.length && !sameKingInCheck; checkRow++)
-			for (int checkCol = 0; checkCol < board[checkRow].length
-					&& !sameKingInCheck; checkCol++) {
-				Square checkForKing = board[checkRow][checkCol];
-				if (checkForKing.containsOwnKing(this)) {
-					sameKing = (King) checkForKing.piece;
-					if (sameKing.inCheck()) {
-						sameKingInCheck = true;
-						threatSquares = sameKing.getThreatSquares();
-					}
-				}
-			}
-
-		// If more than one Piece threatens the Rook's King, it can't be moved
-		// to block or capture the threatening piece (the only way is to move
-		// the King itself)
-		if (threatSquares != null && threatSquares.size() > 1)
-			return new ArrayList<Square>();
-
 		// Keep track of the Square being checked in any direction
 		Square check;
 
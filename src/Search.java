@@ -0,0 +1,1339 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Keeps track of the computer's search for the best move in a game of Chess.
+ * Looks ahead of the moves of both sides on a bitboard Position with
+ * alpha-beta pruning in negamax form: scores are given for the side to move,
+ * which tries to maximize its score, so both colors are searched by the same
+ * method. Every move but the first of a Position is searched with a null
+ * window (principal variation search), since it is most likely worse. A
+ * Position is not searched further if its side to move stays ahead even after
+ * passing its turn (null move pruning), and quiet moves ordered late are first
+ * searched fewer moves ahead (late move reductions), both of which can be
+ * tuned. A side in check is looked ahead one move more, so that the replies to
+ * a check are all searched, up to twice the depth of the root. A Position
+ * reached twice is a draw. Being check mated scores less the fewer moves it
+ * takes, so that the quickest mate is played and the slowest is defended, and
+ * Positions that cannot lead to a quicker mate than one already found are not
+ * searched. Positions already searched deeply enough are looked up in a
+ * transposition table instead of being searched again. The best move is found
+ * by iterative deepening: looking ahead one move, then two and so on until the
+ * time given for the move runs out. From the fourth move on, each depth is
+ * first searched with a narrow window around the score of the last one (an
+ * aspiration window), which is widened step by step if the score falls outside
+ * of it. Moves are searched in order of how likely they are to be best: the
+ * best move of a shallower search, then captures of the most valuable pieces
+ * by the least valuable ones, then killer moves that caused a cutoff at the
+ * same depth, then the remaining moves by how often they caused cutoffs
+ * before. The principal variation, the line both sides are expected to play,
+ * is kept for each iteration with its score, and is searched first by the next
+ * iteration. Once no more moves are to be looked ahead, captures are still
+ * searched until the Position is quiet, so that a pending capture is never
+ * missed. Moves are generated into buffers allocated once for each ply, so
+ * that searching allocates nothing. With more than one thread, the first move
+ * of the root is searched alone and the other root moves are then split across
+ * a pool of threads, each using a helper Search with its own copy of the
+ * Position and sharing the transposition table and the best score found at the
+ * root. Alternatively, in Lazy SMP mode, the helpers search the whole root on
+ * their own at staggered depths while this Search deepens as usual, and they
+ * only help through the entries they leave in the shared transposition table.
+ * The statistics of each search are kept, and can be logged and told to a
+ * listener after each iteration. Includes methods to construct a Search with a
+ * given size of transposition table, to set the number of threads, the way
+ * they share the work and the size of the table, to clear the table, to set
+ * the log and the listener and get the statistics, principal variation and
+ * score of the last search, to find the best move for the side to move, to
+ * stop a search or change the time it is given, and to search the moves of the
+ * side to move to a given depth
+ * @author Siddharth Vaknalli and Sean Marchand
+ * @version Sunday, October 18, 2026
+ */
+public class Search
+{
+	/**
+	 * Listens for the iterations completed by the searches of a Search
+	 */
+	public interface IterationListener
+	{
+		/**
+		 * Called on the thread running a search each time it completes an
+		 * iteration
+		 * @param statistics the statistics of the search
+		 * @param depth the depth of the completed iteration
+		 */
+		void iterationCompleted(SearchStatistics statistics, int depth);
+	}
+
+	// The score of a Position in which a King has been check mated at the
+	// root, which is one less for each move (ply) it takes to be mated, the
+	// score beyond which scores are such mate scores, and the score returned
+	// when a Position is not found in the transposition table
+	public static final int MATE_SCORE = 100000;
+	public static final int MATE_BOUND = MATE_SCORE - 1000;
+	private static final int NOT_FOUND = Integer.MIN_VALUE;
+
+	// A score beyond any score a Position can have, used as the bounds of the
+	// window of a search from the root (unlike Integer.MIN_VALUE, its
+	// opposite is also a score)
+	private static final int INFINITY = MATE_SCORE + 1;
+
+	// The most moves that can be looked ahead, and the number of Positions
+	// searched between checks of the time
+	public static final int MAX_DEPTH = 64;
+	private static final int TIME_CHECK_NODES = 2048;
+
+	// The time given to a search that only stops when it is asked to, which
+	// is far enough in the future without overflowing when added to a time
+	public static final long INFINITE_TIME = Long.MAX_VALUE / 4;
+
+	// The most moves that can be made from the root, and the scores used to
+	// order the move of the principal variation of the last iteration, the
+	// best move of a shallower search, captures and killer moves ahead of the
+	// other moves
+	private static final int MAX_PLY = 128;
+	private static final int PV_MOVE_SCORE = 4000000;
+	private static final int HASH_MOVE_SCORE = 3000000;
+	private static final int CAPTURE_SCORE = 2000000;
+	private static final int KILLER_SCORE = 1000000;
+
+	// The margin by which a capture must be able to raise the score above
+	// the score already assured for it to be searched when quiescing
+	private static final int DELTA_MARGIN = 200;
+
+	// The depth from which each iteration is searched with an aspiration
+	// window around the score of the last one, the distance from that score to
+	// each side of the first window (which doubles each time the score falls
+	// outside of it), and the distance beyond which that side is opened fully
+	private static final int ASPIRATION_DEPTH = 4;
+	private static final int ASPIRATION_WINDOW = 50;
+	private static final int MAX_ASPIRATION_WINDOW = 1000;
+
+	// The default number of moves looked ahead less after a null move, which
+	// is one more when more moves than ADAPTIVE_NULL_MOVE_DEPTH are left to
+	// look ahead, and the default number of moves of each Position searched in
+	// full, fewest moves left to look ahead for the later quiet moves to be
+	// reduced and number of moves they are reduced by
+	public static final int DEFAULT_NULL_MOVE_REDUCTION = 2;
+	private static final int ADAPTIVE_NULL_MOVE_DEPTH = 6;
+	public static final int DEFAULT_FULL_DEPTH_MOVES = 3;
+	public static final int DEFAULT_REDUCTION_DEPTH = 3;
+	public static final int DEFAULT_LATE_MOVE_REDUCTION = 1;
+
+	// Keep track of the transposition table and of the number of moves made
+	// since the start of the search
+	private TranspositionTable table;
+	private int ply;
+	private int hashMove;
+
+	// Keep track of two killer moves for each ply, and the history of how
+	// often each move from and to each Square has caused a cutoff for each
+	// color
+	private int[][] killers;
+	private int[][][] history;
+
+	// Keep track of the buffers the moves of each ply and their ordering
+	// scores are generated into
+	private int[][] moveBuffers;
+	private int[][] scoreBuffers;
+
+	// Keep track of the principal variation from each ply in a triangular
+	// table, where the line from a ply is its best move followed by the line
+	// from the next ply, and of the principal variation of the root found by
+	// the last completed iteration, which is searched first by the next one
+	// for as long as the search follows it
+	private int[][] pvTable;
+	private int[] pvLength;
+	private int[] previousPv;
+	private int previousPvLength;
+	private boolean followPv;
+
+	// Keep track of the settings of null move pruning and late move
+	// reductions (the helpers use those of their owner), and of whether the
+	// move leading to each ply was a null move
+	private int nullMoveReduction;
+	private int fullDepthMoves;
+	private int reductionDepth;
+	private int lateMoveReduction;
+	private boolean[] nullMoves;
+
+	// Keep track of the statistics of the search (including the number of
+	// Positions searched), whether it has been stopped and the depth searched
+	// from the root (which the helpers read), and the stream the statistics
+	// are logged to and the listener told of each iteration, if any
+	private SearchStatistics statistics;
+	private PrintStream log;
+	private IterationListener iterationListener;
+	private boolean stopped;
+	private volatile int rootDepth;
+
+	// Keep track of the number of Positions searched, published every few
+	// thousand Positions so that the owner can read it while a helper is
+	// still searching
+	private volatile long publishedNodes;
+
+	// Keep track of the time at which the search must stop and the time after
+	// which no deeper search is started, which can be changed while the
+	// search runs (the helpers use those of their owner), and whether a time
+	// has been given since this Search was last prepared
+	private volatile long deadline;
+	private volatile long softDeadline;
+	private boolean moveTimeGiven;
+
+	// Keep track of the Search that owns this one (itself unless this is a
+	// helper), whether it has been asked to stop, the pool of threads
+	// searching the root moves in parallel (none when searching on a single
+	// thread), all the helpers and the helpers that are not searching
+	private Search owner;
+	private volatile boolean stopRequested;
+	private ForkJoinPool pool;
+	private ConcurrentLinkedQueue<Search> helpers;
+	private ConcurrentLinkedQueue<Search> idleHelpers;
+
+	// Keep track of whether the threads search in Lazy SMP mode rather than
+	// splitting the root moves, and whether the Lazy SMP helpers must stop
+	// because this Search has finished
+	private boolean lazySmp;
+	private volatile boolean helpersDone;
+
+	// Keep track of the copy of the root Position searched by a helper, and
+	// of the best root move found by all the threads and its score for the
+	// side to move at the root, and of the window the root is searched with
+	private Position helperPosition;
+	private int rootBestMove;
+	private int rootBestScore;
+	private int rootAlpha;
+	private int rootBeta;
+
+	/**
+	 * Constructs a Search with a transposition table of the given size,
+	 * searching on a single thread
+	 * @param hashMegabytes the size of the transposition table in megabytes
+	 */
+	public Search(int hashMegabytes)
+	{
+		this(new TranspositionTable(hashMegabytes), null);
+		owner = this;
+	}
+
+	/**
+	 * Constructs a helper Search of the given owner, sharing its
+	 * transposition table
+	 * @param table the transposition table to use
+	 * @param owner the Search this one helps, or null if it is not a helper
+	 */
+	private Search(TranspositionTable table, Search owner)
+	{
+		this.table = table;
+		this.owner = owner;
+		killers = new int[MAX_PLY][2];
+		history = new int[2][64][64];
+		moveBuffers = new int[MAX_PLY][Position.MAX_MOVES];
+		scoreBuffers = new int[MAX_PLY][Position.MAX_MOVES];
+		pvTable = new int[MAX_PLY][MAX_PLY];
+		pvLength = new int[MAX_PLY];
+		previousPv = new int[MAX_PLY];
+		nullMoves = new boolean[MAX_PLY];
+		nullMoveReduction = DEFAULT_NULL_MOVE_REDUCTION;
+		fullDepthMoves = DEFAULT_FULL_DEPTH_MOVES;
+		reductionDepth = DEFAULT_REDUCTION_DEPTH;
+		lateMoveReduction = DEFAULT_LATE_MOVE_REDUCTION;
+		helperPosition = new Position();
+		statistics = new SearchStatistics();
+	}
+
+	/**
+	 * Sets the number of threads the search runs on. This must not be called
+	 * while a search is running
+	 * @param threads the number of threads, 1 to search on a single thread
+	 */
+	public void setThreads(int threads)
+	{
+		if (pool != null)
+			pool.shutdown();
+		pool = null;
+		helpers = null;
+		idleHelpers = null;
+		if (threads > 1)
+		{
+			pool = new ForkJoinPool(threads);
+			helpers = new ConcurrentLinkedQueue<Search>();
+			idleHelpers = new ConcurrentLinkedQueue<Search>();
+		}
+	}
+
+	/**
+	 * Replaces the transposition table with an empty one of the given size.
+	 * This must not be called while a search is running
+	 * @param hashMegabytes the size of the transposition table in megabytes
+	 */
+	public void setHashSize(int hashMegabytes)
+	{
+		table = new TranspositionTable(hashMegabytes);
+
+		// The helpers share the old table, so new ones are made when needed
+		if (idleHelpers != null)
+		{
+			helpers.clear();
+			idleHelpers.clear();
+		}
+	}
+
+	/**
+	 * Sets whether the threads search in Lazy SMP mode, each searching the
+	 * whole root and sharing only the transposition table, rather than
+	 * splitting the root moves between them. This must not be called while a
+	 * search is running
+	 * @param lazySmp true to search in Lazy SMP mode, false to split the root
+	 *            moves
+	 */
+	public void setLazySmp(boolean lazySmp)
+	{
+		this.lazySmp = lazySmp;
+	}
+
+	/**
+	 * Sets the number of moves looked ahead less after a null move, passing
+	 * the turn to the opponent to show that the side to move is so far ahead
+	 * that its moves need not be searched in full. One more move is skipped
+	 * when many moves are left to look ahead. This must not be called while a
+	 * search is running
+	 * @param reduction the number of moves, or 0 to turn off null move
+	 *            pruning
+	 */
+	public void setNullMoveReduction(int reduction)
+	{
+		nullMoveReduction = reduction;
+	}
+
+	/**
+	 * Sets how the quiet moves ordered late in each Position are searched
+	 * fewer moves ahead, to be searched again in full only if they turn out
+	 * better than the best move so far. This must not be called while a
+	 * search is running
+	 * @param fullDepthMoves the number of moves of each Position searched in
+	 *            full before the others may be reduced
+	 * @param minDepth the fewest moves left to look ahead for moves to be
+	 *            reduced
+	 * @param reduction the number of moves a reduced move is searched less,
+	 *            or 0 to turn off late move reductions
+	 */
+	public void setLateMoveReductions(int fullDepthMoves, int minDepth,
+			int reduction)
+	{
+		this.fullDepthMoves = fullDepthMoves;
+		reductionDepth = minDepth;
+		lateMoveReduction = reduction;
+	}
+
+	/**
+	 * Sets the stream the statistics of each iteration and of each search
+	 * are logged to
+	 * @param log the stream to log to, or null to log nothing
+	 */
+	public void setLog(PrintStream log)
+	{
+		this.log = log;
+	}
+
+	/**
+	 * Sets the listener told each time a search completes an iteration, such
+	 * as to report its depth, score and principal variation while it runs
+	 * @param listener the listener, or null to tell no listener
+	 */
+	public void setIterationListener(IterationListener listener)
+	{
+		iterationListener = listener;
+	}
+
+	/**
+	 * Gets the statistics of the last search, including those of its helper
+	 * threads once it has finished
+	 * @return the statistics of the last search
+	 */
+	public SearchStatistics getStatistics()
+	{
+		return statistics;
+	}
+
+	/**
+	 * Gets the principal variation of the deepest iteration completed by the
+	 * last search, starting with its best move
+	 * @return the moves of the principal variation
+	 */
+	public List<Integer> getPrincipalVariation()
+	{
+		return statistics.getIterationPrincipalVariation(statistics
+				.getCompletedDepth());
+	}
+
+	/**
+	 * Gets the score of the deepest iteration completed by the last search
+	 * @return the score of the searched Position, for the side to move
+	 */
+	public int getScore()
+	{
+		return statistics.getIterationScore(statistics.getCompletedDepth());
+	}
+
+	/**
+	 * Prepares this Search for a new search by forgetting any earlier request
+	 * to stop or time given. This is called by the thread starting a search
+	 * before it is handed to the thread running it, so that a stop requested
+	 * or a time given before the search starts still applies to it
+	 */
+	public synchronized void prepare()
+	{
+		stopRequested = false;
+		moveTimeGiven = false;
+	}
+
+	/**
+	 * Asks a running search to stop as soon as possible, such as when the
+	 * move it is looking for is no longer needed. The search returns the best
+	 * move of the last depth it completed
+	 */
+	public void stop()
+	{
+		stopRequested = true;
+	}
+
+	/**
+	 * Gives a running search the given time from now, such as when the move
+	 * it was searching during the opponent's time has been played. A search
+	 * that has been prepared but has not started yet keeps this time instead
+	 * of the one it is started with
+	 * @param moveTime the time to search for in milliseconds
+	 */
+	public synchronized void setMoveTime(long moveTime)
+	{
+		setDeadlines(moveTime);
+		moveTimeGiven = true;
+	}
+
+	/**
+	 * Starts the clock of a search with the given time from now, unless a
+	 * time has already been given to it since this Search was last prepared
+	 * @param moveTime the time to search for in milliseconds
+	 */
+	private synchronized void startClock(long moveTime)
+	{
+		if (!moveTimeGiven)
+			setDeadlines(moveTime);
+	}
+
+	/**
+	 * Sets the time at which the search must stop to the given time from
+	 * now, and the time after which no deeper search is started to half of it
+	 * @param moveTime the time to search for in milliseconds
+	 */
+	private void setDeadlines(long moveTime)
+	{
+		long now = System.currentTimeMillis();
+		deadline = now + moveTime;
+		softDeadline = now + moveTime / 2;
+	}
+
+	/**
+	 * Removes all the Positions stored in the transposition table, such as
+	 * when a new game is started
+	 */
+	public void clearHash()
+	{
+		table.clear();
+	}
+
+	/**
+	 * Finds the best move for the side to move in the given Position by
+	 * looking ahead one move, then two and so on, until the given number of
+	 * moves has been looked ahead, the given time has passed or the search is
+	 * asked to stop. The move found by the last search that was completed is
+	 * returned. A stop requested since this Search was last prepared stops
+	 * the search at once, and a time given since then replaces the given time
+	 * @param position the Position to search
+	 * @param maxDepth the most moves to look ahead
+	 * @param moveTime the time to search for in milliseconds, or
+	 *            INFINITE_TIME to search until asked to stop
+	 * @return the best move found, or 0 if the side to move has no moves
+	 */
+	public int findBestMove(Position position, int maxDepth, long moveTime)
+	{
+		startClock(moveTime);
+		helpersDone = false;
+		table.newSearch();
+		startSearch();
+		if (idleHelpers != null)
+			for (Search helper : idleHelpers)
+				helper.startSearch();
+		List<ForkJoinTask<?>> helperTasks = null;
+		if (pool != null && lazySmp)
+			helperTasks = startLazySmpHelpers(position, maxDepth);
+
+		int bestMove = 0;
+		for (int depth = 1; depth <= Math.min(maxDepth, MAX_DEPTH); depth++)
+		{
+			// Search with a window around the score of the last depth, which
+			// is widened on the side the score falls outside of, by twice as
+			// much each time, until the score is inside it
+			int alpha = -INFINITY;
+			int beta = INFINITY;
+			int window = ASPIRATION_WINDOW;
+			if (depth >= ASPIRATION_DEPTH)
+			{
+				alpha = Math.max(-INFINITY, rootBestScore - window);
+				beta = Math.min(INFINITY, rootBestScore + window);
+			}
+			int move = searchRoot(position, depth, alpha, beta);
+			while (!stopped && move != 0
+					&& (rootBestScore <= alpha && alpha > -INFINITY
+							|| rootBestScore >= beta && beta < INFINITY))
+			{
+				window *= 2;
+				if (rootBestScore <= alpha)
+					alpha = window > MAX_ASPIRATION_WINDOW ? -INFINITY : Math
+							.max(-INFINITY, alpha - window);
+				else
+					beta = window > MAX_ASPIRATION_WINDOW ? INFINITY : Math
+							.min(INFINITY, beta + window);
+				statistics.countResearch();
+				move = searchRoot(position, depth, alpha, beta);
+			}
+
+			// Keep the move only if the search of this depth was completed.
+			// The first depth is never stopped by the time, and the best move
+			// found so far is kept if it is stopped before it completes, so
+			// that a move is found
+			if (stopped && depth > 1)
+				break;
+			bestMove = move;
+			if (stopped)
+				break;
+			statistics.endIteration(depth, countAllNodes(), rootBestScore,
+					pvTable[0], pvLength[0]);
+			if (log != null)
+				log.println(statistics.iterationToString(depth));
+			if (iterationListener != null)
+				iterationListener.iterationCompleted(statistics, depth);
+
+			// Do not start a deeper search unless there is enough time left
+			// for it to be completed (each depth takes longer than all of the
+			// previous ones)
+			if (System.currentTimeMillis() > softDeadline)
+				break;
+		}
+
+		// The best move is always the one found by this Search, so the Lazy
+		// SMP helpers are stopped as soon as it has finished
+		if (helperTasks != null)
+		{
+			helpersDone = true;
+			for (ForkJoinTask<?> helperTask : helperTasks)
+				helperTask.join();
+		}
+
+		// Add the statistics of the helpers to those of this Search
+		if (helpers != null)
+			for (Search helper : helpers)
+				statistics.add(helper.statistics);
+		statistics.finish();
+		if (log != null)
+			log.println(statistics);
+
+		return bestMove;
+	}
+
+	/**
+	 * Starts a Lazy SMP helper on each thread of the pool, each searching its
+	 * own copy of the given Position by iterative deepening until this Search
+	 * has finished. Half of the helpers start one move deeper than the
+	 * others, so that the threads do not all search the same depth at the
+	 * same time
+	 * @param position the Position to search
+	 * @param maxDepth the most moves to look ahead
+	 * @return the tasks running the helpers
+	 */
+	private List<ForkJoinTask<?>> startLazySmpHelpers(Position position,
+			final int maxDepth)
+	{
+		List<ForkJoinTask<?>> helperTasks = new ArrayList<ForkJoinTask<?>>();
+		for (int next = 0; next < pool.getParallelism(); next++)
+		{
+			Search polled = idleHelpers.poll();
+			if (polled == null)
+			{
+				polled = new Search(table, this);
+				polled.startSearch();
+				helpers.add(polled);
+			}
+			final Search helper = polled;
+			final int firstDepth = 1 + (next & 1);
+			helper.helperPosition.copyFrom(position);
+			helperTasks.add(pool.submit(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					for (int depth = firstDepth; depth <= Math.min(maxDepth,
+							MAX_DEPTH); depth++)
+					{
+						helper.searchRoot(helper.helperPosition, depth,
+								-INFINITY, INFINITY);
+						if (helper.stopped)
+							break;
+					}
+					idleHelpers.add(helper);
+				}
+			}));
+		}
+		return helperTasks;
+	}
+
+	/**
+	 * Starts a new search of this Search or helper
+	 */
+	private void startSearch()
+	{
+		stopped = false;
+		statistics.reset();
+		publishedNodes = 0;
+		previousPvLength = 0;
+
+		// Forget the killer moves of the last search and age the history so
+		// that recent cutoffs count for more
+		for (int[] plyKillers : killers)
+			plyKillers[0] = plyKillers[1] = 0;
+		for (int[][] colorHistory : history)
+			for (int[] fromHistory : colorHistory)
+				for (int to = 0; to < 64; to++)
+					fromHistory[to] /= 2;
+	}
+
+	/**
+	 * Searches the given Position from the root with the given window,
+	 * looking ahead the given number of moves. Its score is kept as the best
+	 * score at the root: at most alpha if every move fails low, and at least
+	 * beta if a move fails high, in which case the other moves are not
+	 * searched. If the search is stopped before it completes, the best move
+	 * found so far is returned, or the first move in order if none has been
+	 * searched, so that a move is always found
+	 * @param position the Position to search
+	 * @param lookAheadDepth the number of moves to look ahead
+	 * @param alpha the lowest score of the window
+	 * @param beta the highest score of the window
+	 * @return the best move found, or 0 if the side to move has no moves
+	 */
+	private int searchRoot(Position position, int lookAheadDepth, int alpha,
+			int beta)
+	{
+		ply = 0;
+		rootDepth = lookAheadDepth;
+		rootAlpha = alpha;
+		rootBeta = beta;
+		pvLength[0] = 0;
+		followPv = previousPvLength > 0;
+		if (pool != null && !lazySmp)
+			return searchRootParallel(position, lookAheadDepth);
+
+		countNode(false);
+		int[] moves = moveBuffers[0];
+		int count = orderRootMoves(position, lookAheadDepth);
+		if (count == 0)
+			return 0;
+		statistics.countExpandedNode();
+
+		// The first move is searched with the whole window, and the others
+		// with a null window that only shows whether they are better
+		rootBestMove = moves[0];
+		rootBestScore = alpha;
+		for (int next = 0; next < count; next++)
+		{
+			position.makeMove(moves[next]);
+			ply = 1;
+			int score = searchChild(position, rootBestScore, beta,
+					lookAheadDepth - 1, next == 0, 0);
+			ply = 0;
+			position.unmakeMove(moves[next]);
+			followPv = false;
+			if (stopped)
+				return rootBestMove;
+			if (score > rootBestScore)
+			{
+				rootBestScore = score;
+				rootBestMove = moves[next];
+				updatePrincipalVariation(moves[next]);
+				if (score >= beta)
+					break;
+			}
+		}
+
+		finishRoot(position, lookAheadDepth);
+		return rootBestMove;
+	}
+
+	/**
+	 * Stores the best move and score found at the root in the transposition
+	 * table, as a bound if the score fell outside of the window, and keeps the
+	 * principal variation for the next search unless every move failed low
+	 * @param position the root Position
+	 * @param lookAheadDepth the number of moves looked ahead
+	 */
+	private void finishRoot(Position position, int lookAheadDepth)
+	{
+		int bound = TranspositionTable.EXACT;
+		if (rootBestScore <= rootAlpha)
+			bound = TranspositionTable.UPPER_BOUND;
+		else if (rootBestScore >= rootBeta)
+			bound = TranspositionTable.LOWER_BOUND;
+		storeTable(position, rootBestMove, rootBestScore, lookAheadDepth,
+				bound);
+		if (bound != TranspositionTable.UPPER_BOUND)
+			keepPrincipalVariation();
+	}
+
+	/**
+	 * Generates the legal moves of the given root Position into the move
+	 * buffer of the root and sorts them in the order they are searched,
+	 * starting with the best move of a shallower search
+	 * @param position the root Position
+	 * @param lookAheadDepth the number of moves to look ahead
+	 * @return the number of legal moves
+	 */
+	private int orderRootMoves(Position position, int lookAheadDepth)
+	{
+		probeTable(position, -INFINITY, INFINITY, lookAheadDepth);
+		int[] moves = moveBuffers[0];
+		int[] scores = scoreBuffers[0];
+		int count = position.generateLegalMoves(moves);
+
+		// A root with no moves is check mated or stale mated
+		if (count == 0)
+			rootBestScore = position.inCheck(position.getSideToMove())
+					? -MATE_SCORE : 0;
+		scoreMoves(position, moves, scores, count);
+		for (int next = 0; next < count; next++)
+			pickNextMove(moves, scores, count, next);
+		return count;
+	}
+
+	/**
+	 * Searches the moves of the given Position from the root on the pool of
+	 * threads. The first move in order is searched alone, so that the other
+	 * moves can be searched in parallel with its score as a bound (the young
+	 * brothers wait for the eldest). Each thread searching a move raises the
+	 * shared bound if the move is better
+	 * @param position the Position to search
+	 * @param lookAheadDepth the number of moves to look ahead
+	 * @return the best move found, or 0 if the side to move has no moves
+	 */
+	private int searchRootParallel(final Position position,
+			int lookAheadDepth)
+	{
+		int[] moves = moveBuffers[0];
+		int count = orderRootMoves(position, lookAheadDepth);
+		if (count == 0)
+			return 0;
+
+		rootBestMove = 0;
+		rootBestScore = rootAlpha;
+		searchRootMove(position, moves[0], true);
+		followPv = false;
+		if (stopped)
+			return moves[0];
+		if (rootBestScore >= rootBeta)
+		{
+			finishRoot(position, lookAheadDepth);
+			return rootBestMove;
+		}
+
+		// Search each of the other moves on a helper with its own copy of the
+		// Position
+		final List<RecursiveAction> tasks = new ArrayList<RecursiveAction>();
+		for (int next = 1; next < count; next++)
+		{
+			final int move = moves[next];
+			tasks.add(new RecursiveAction()
+			{
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute()
+				{
+					Search helper = idleHelpers.poll();
+					if (helper == null)
+					{
+						helper = new Search(table, Search.this);
+						helper.startSearch();
+						helpers.add(helper);
+					}
+					helper.helperPosition.copyFrom(position);
+					helper.searchRootMove(helper.helperPosition, move, false);
+					idleHelpers.add(helper);
+				}
+			});
+		}
+		pool.invoke(new RecursiveAction()
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute()
+			{
+				invokeAll(tasks);
+			}
+		});
+
+		// The search is stopped if any helper ran out of time
+		for (Search helper : idleHelpers)
+			if (helper.stopped)
+				stopped = true;
+		if (stopped)
+			return rootBestMove;
+
+		finishRoot(position, lookAheadDepth);
+		return rootBestMove;
+	}
+
+	/**
+	 * Searches the given root move with the best score found at the root so
+	 * far as a bound, and offers it to the owner of this Search as the best
+	 * move if its search was completed
+	 * @param position the root Position
+	 * @param move the root move to search
+	 * @param first true if this is the first root move, which is searched
+	 *            with the whole window, false otherwise
+	 */
+	private void searchRootMove(Position position, int move, boolean first)
+	{
+		rootDepth = owner.rootDepth;
+		int bound = owner.getRootBestScore();
+		position.makeMove(move);
+		ply = 1;
+		int score = searchChild(position, bound, owner.rootBeta,
+				owner.rootDepth - 1, first, 0);
+		ply = 0;
+		position.unmakeMove(move);
+		if (!stopped)
+			owner.offerRootMove(move, score, this);
+	}
+
+	/**
+	 * Gets the best score found at the root so far by all the threads
+	 * @return the best score at the root, for the side to move at the root
+	 */
+	private synchronized int getRootBestScore()
+	{
+		return rootBestScore;
+	}
+
+	/**
+	 * Keeps the given root move as the best one if it scores better than the
+	 * best root move found so far by all the threads, with the principal
+	 * variation found after it by the Search that searched it
+	 * @param move the root move
+	 * @param score the score of the move, for the side to move at the root
+	 * @param searcher the Search (this one or a helper) that searched the move
+	 */
+	private synchronized void offerRootMove(int move, int score,
+			Search searcher)
+	{
+		if (rootBestMove == 0 || score > rootBestScore)
+		{
+			rootBestMove = move;
+			rootBestScore = score;
+			pvTable[0][0] = move;
+			System.arraycopy(searcher.pvTable[1], 1, pvTable[0], 1,
+					searcher.pvLength[1] - 1);
+			pvLength[0] = searcher.pvLength[1];
+		}
+	}
+
+	/**
+	 * Makes the given move the best move of the current ply, followed by the
+	 * principal variation found from the next ply after it
+	 * @param move the best move of the current ply
+	 */
+	private void updatePrincipalVariation(int move)
+	{
+		pvTable[ply][ply] = move;
+		System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1,
+				pvLength[ply + 1] - ply - 1);
+		pvLength[ply] = pvLength[ply + 1];
+	}
+
+	/**
+	 * Keeps the principal variation of the root found by a completed
+	 * iteration, so that the next iteration searches it first
+	 */
+	private void keepPrincipalVariation()
+	{
+		previousPvLength = pvLength[0];
+		System.arraycopy(pvTable[0], 0, previousPv, 0, previousPvLength);
+	}
+
+	/**
+	 * Counts the Positions searched by this Search and all its helpers so far.
+	 * The counts of helpers that may still be searching are read from those
+	 * they last published, so they may be a few thousand Positions behind
+	 * @return the number of Positions searched
+	 */
+	private long countAllNodes()
+	{
+		long total = statistics.getNodes();
+		if (helpers != null)
+			for (Search helper : helpers)
+				total += helper.publishedNodes;
+		return total;
+	}
+
+	/**
+	 * Counts a Position being searched. Every few thousand Positions, the
+	 * count is published and the search checks whether its time has run out
+	 * or it has been asked to stop. The search of the first depth is never stopped by
+	 * the time, so that a move is always found
+	 * @param quiescence true if only the captures of the Position are
+	 *            searched, false otherwise
+	 */
+	private void countNode(boolean quiescence)
+	{
+		statistics.countNode(quiescence);
+		if ((statistics.getNodes() % TIME_CHECK_NODES) == 0)
+		{
+			publishedNodes = statistics.getNodes();
+
+			// A search is also stopped if it has been asked to stop or if it
+			// is a Lazy SMP helper of a Search that has finished
+			if (owner.stopRequested || (owner != this && owner.helpersDone))
+				stopped = true;
+			else if (owner.rootDepth > 1
+					&& System.currentTimeMillis() >= owner.deadline)
+				stopped = true;
+		}
+	}
+
+	/**
+	 * Scores each of the given moves for ordering: the move of the principal
+	 * variation of the last iteration first while the search is following it,
+	 * then the best move of a shallower search, then captures (and promotions)
+	 * ordered by most valuable victim and least valuable attacker, then the
+	 * killer moves of this ply, then the other moves by their history
+	 * @param position the Position the moves are generated from
+	 * @param moves the moves to score
+	 * @param scores the array to store the score of each move in
+	 * @param count the number of moves
+	 */
+	private void scoreMoves(Position position, int[] moves, int[] scores,
+			int count)
+	{
+		int color = position.getSideToMove();
+
+		// The search only keeps following the principal variation of the last
+		// iteration while its move is among these moves
+		int pvMove = 0;
+		if (followPv)
+		{
+			followPv = false;
+			if (ply < previousPvLength)
+				pvMove = previousPv[ply];
+		}
+
+		for (int next = 0; next < count; next++)
+		{
+			int move = moves[next];
+			int victim = position.capturedPiece(move);
+			if (move == pvMove)
+			{
+				scores[next] = PV_MOVE_SCORE;
+				followPv = true;
+			}
+			else if (move == hashMove)
+				scores[next] = HASH_MOVE_SCORE;
+			else if (victim != Position.EMPTY || Position.isPromotion(move))
+			{
+				if (victim == Position.EMPTY)
+					victim = Position.promotion(move);
+				scores[next] = CAPTURE_SCORE + victim * 10
+						- position.pieceAt(Position.from(move));
+			}
+			else if (move == killers[ply][0])
+				scores[next] = KILLER_SCORE + 1;
+			else if (move == killers[ply][1])
+				scores[next] = KILLER_SCORE;
+			else
+				scores[next] = history[color][Position.from(move)][Position
+						.to(move)];
+		}
+	}
+
+	/**
+	 * Swaps the move with the highest score from the given index onwards into
+	 * the given index, so that moves are picked in order of their scores
+	 * without sorting moves that are never searched because of a cutoff
+	 * @param moves the moves
+	 * @param scores the scores of the moves
+	 * @param count the number of moves
+	 * @param index the index of the next move to search
+	 */
+	private static void pickNextMove(int[] moves, int[] scores, int count,
+			int index)
+	{
+		int best = index;
+		for (int next = index + 1; next < count; next++)
+			if (scores[next] > scores[best])
+				best = next;
+
+		int move = moves[best];
+		moves[best] = moves[index];
+		moves[index] = move;
+		int score = scores[best];
+		scores[best] = scores[index];
+		scores[index] = score;
+	}
+
+	/**
+	 * Records a quiet move (neither a capture nor a promotion) that caused a
+	 * cutoff as a killer move of this ply and in the history of its color
+	 * @param position the Position the move is made from
+	 * @param move the move that caused a cutoff
+	 * @param lookAheadDepth the number of moves left to look ahead
+	 */
+	private void recordCutoff(Position position, int move, int lookAheadDepth)
+	{
+		if (!isQuiet(position, move))
+			return;
+
+		if (killers[ply][0] != move)
+		{
+			killers[ply][1] = killers[ply][0];
+			killers[ply][0] = move;
+		}
+		history[position.getSideToMove()][Position.from(move)][Position
+				.to(move)] += lookAheadDepth * lookAheadDepth;
+	}
+
+	/**
+	 * Checks whether the given move is quiet: neither a capture nor a
+	 * promotion
+	 * @param position the Position the move is made from
+	 * @param move the move
+	 * @return true if the move is quiet, false otherwise
+	 */
+	private static boolean isQuiet(Position position, int move)
+	{
+		return position.capturedPiece(move) == Position.EMPTY
+				&& !Position.isPromotion(move);
+	}
+
+	/**
+	 * Looks up the given Position in the transposition table, keeping track of
+	 * the best move stored for it, and gets its stored score if it was
+	 * searched at least as deeply and the score is enough to decide the
+	 * search of the Position with the given bounds
+	 * @param position the Position to look up
+	 * @param alpha the score the side to move is already assured of
+	 * @param beta the score the opponent is already assured of
+	 * @param lookAheadDepth the number of moves left to look ahead
+	 * @return the score to return for the Position, or NOT_FOUND if it must
+	 *         be searched
+	 */
+	private int probeTable(Position position, int alpha, int beta,
+			int lookAheadDepth)
+	{
+		hashMove = 0;
+		long entry = table.probe(position.getKey());
+		statistics.countProbe(entry != 0L);
+		if (entry == 0L)
+			return NOT_FOUND;
+		hashMove = TranspositionTable.getMove(entry);
+
+		// The root is always searched so that its best move is found
+		if (ply == 0 || TranspositionTable.getDepth(entry) < lookAheadDepth)
+			return NOT_FOUND;
+
+		// Mate scores are stored by their distance from the stored Position,
+		// so they are turned back into their distance from the root
+		int score = TranspositionTable.getScore(entry);
+		if (score > MATE_BOUND)
+			score -= ply;
+		else if (score < -MATE_BOUND)
+			score += ply;
+		int bound = TranspositionTable.getBound(entry);
+		if (bound == TranspositionTable.EXACT)
+			return score;
+		if (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+			return beta;
+		if (bound == TranspositionTable.UPPER_BOUND && score <= alpha)
+			return alpha;
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Stores the given Position in the transposition table. Mate scores are
+	 * stored by their distance from the Position rather than from the root,
+	 * so that they stay right when the Position is reached at another ply
+	 * @param position the Position to store
+	 * @param move the best move found for the Position, or 0 if none
+	 * @param score the score of the Position, for the side to move
+	 * @param lookAheadDepth the number of moves looked ahead from it
+	 * @param bound the type of bound of the score
+	 */
+	private void storeTable(Position position, int move, int score,
+			int lookAheadDepth, int bound)
+	{
+		if (score > MATE_BOUND)
+			score += ply;
+		else if (score < -MATE_BOUND)
+			score -= ply;
+		table.store(position.getKey(), move, score, lookAheadDepth, bound);
+	}
+
+	/**
+	 * Searches the Position reached by a move with principal variation
+	 * search. The first move of a Position is searched with the whole window.
+	 * Every other move is expected to be worse, so it is first searched with a
+	 * null window just above alpha, which only shows whether it is better and
+	 * cuts off much more, and is searched again with the whole window only if
+	 * it turns out to be better. A reduced move is first searched with a null
+	 * window fewer moves ahead, and only searched in full if that shows it is
+	 * better
+	 * @param position the Position after the move, with the opponent to move
+	 * @param alpha the score the side that made the move is already assured of
+	 * @param beta the score its opponent is already assured of
+	 * @param lookAheadDepth the number of moves left to look ahead
+	 * @param first true if this is the first move searched, false otherwise
+	 * @param reduction the number of moves fewer to look ahead first, or 0
+	 * @return the score of the move, for the side that made it
+	 */
+	private int searchChild(Position position, int alpha, int beta,
+			int lookAheadDepth, boolean first, int reduction)
+	{
+		if (first)
+			return -negamax(position, -beta, -alpha, lookAheadDepth);
+
+		if (reduction > 0)
+		{
+			int score = -negamax(position, -alpha - 1, -alpha, lookAheadDepth
+					- reduction);
+			if (score <= alpha || stopped)
+				return score;
+		}
+
+		int score = -negamax(position, -alpha - 1, -alpha, lookAheadDepth);
+		if (score > alpha && score < beta && !stopped)
+			score = -negamax(position, -beta, -alpha, lookAheadDepth);
+		return score;
+	}
+
+	/**
+	 * Searches the moves of the side to move in the given Position, looking
+	 * for the move that maximizes its score. Scores are given for the side to
+	 * move, so the score of a move is the opposite of the score of the
+	 * Position it leads to for the opponent, and both colors are searched the
+	 * same way
+	 * @param position the Position to search
+	 * @param alpha the score the side to move is already assured of
+	 * @param beta the score the opponent is already assured of
+	 * @param lookAheadDepth the number of moves left to look ahead
+	 * @return the score of the Position, for the side to move
+	 */
+	public int negamax(Position position, int alpha, int beta,
+			int lookAheadDepth)
+	{
+		// Check extension: a side in check is looked ahead one move more, so
+		// that its replies are all searched rather than only its captures.
+		// Lines are only extended up to twice the depth of the root, so that
+		// a long series of checks does not keep extending the search
+		int color = position.getSideToMove();
+		boolean inCheck = position.inCheck(color);
+		if (inCheck && ply < 2 * rootDepth)
+			lookAheadDepth++;
+		if (lookAheadDepth == 0)
+			return quiesce(position, alpha, beta);
+
+		countNode(false);
+		pvLength[ply] = ply;
+
+		// A Position already reached on the way from the root is a draw,
+		// since either side can repeat the moves leading back to it
+		if (position.isRepetition())
+			return 0;
+
+		// Stop looking ahead if the buffers of each ply are full, which only
+		// a long series of checks can lead to
+		if (ply >= MAX_PLY - 1)
+			return Math.max(alpha, Math.min(beta, Evaluation
+					.evaluateForSideToMove(position)));
+
+		// Mate distance pruning: no score can be better than mating at the
+		// next move or worse than being mated now, so the Position need not
+		// be searched if a quicker mate is already assured
+		alpha = Math.max(alpha, -MATE_SCORE + ply);
+		beta = Math.min(beta, MATE_SCORE - ply - 1);
+		if (alpha >= beta)
+			return alpha;
+
+		// Positions searched with more than a null window may be on the
+		// principal variation, so they are searched even if they are found in
+		// the table, which would cut their line short
+		int stored = probeTable(position, alpha, beta, lookAheadDepth);
+		if (stored != NOT_FOUND && beta - alpha == 1)
+			return stored;
+		statistics.countExpandedNode();
+
+		// Null move pruning: if the side to move is still assured of beta
+		// after passing its turn and looking fewer moves ahead, its moves need
+		// not be searched. This is not done on the principal variation, after
+		// another null move, in check (where passing is not legal) or when the
+		// side to move has only Pawns, as it may then be in zugzwang
+		if (owner.nullMoveReduction > 0
+				&& lookAheadDepth > owner.nullMoveReduction
+				&& beta - alpha == 1 && !nullMoves[ply] && !inCheck
+				&& position.hasPiecesOtherThanPawns(color)
+				&& Evaluation.evaluateForSideToMove(position) >= beta)
+		{
+			int nullDepth = lookAheadDepth - 1 - owner.nullMoveReduction;
+			if (lookAheadDepth > ADAPTIVE_NULL_MOVE_DEPTH)
+				nullDepth = Math.max(0, nullDepth - 1);
+
+			// The search after the null move looks up other Positions, so the
+			// best move stored for this one is kept to order its moves
+			int probedMove = hashMove;
+			position.makeNullMove();
+			ply++;
+			nullMoves[ply] = true;
+			int score = -negamax(position, -beta, -beta + 1, nullDepth);
+			nullMoves[ply] = false;
+			ply--;
+			position.unmakeNullMove();
+			hashMove = probedMove;
+			if (stopped)
+				return 0;
+			if (score >= beta)
+				return beta;
+		}
+
+		// Score the moves so that the most promising ones are searched first
+		int[] moves = moveBuffers[ply];
+		int[] scores = scoreBuffers[ply];
+		int count = position.generateLegalMoves(moves);
+		scoreMoves(position, moves, scores, count);
+		int bestMove = 0;
+		int bound = TranspositionTable.UPPER_BOUND;
+
+		for (int next = 0; next < count; next++)
+		{
+			pickNextMove(moves, scores, count, next);
+
+			// Late move reductions: quiet moves ordered after the first few
+			// (other than killer moves) rarely turn out best, so unless either
+			// side is in check they are first searched fewer moves ahead
+			boolean reducible = owner.lateMoveReduction > 0
+					&& next >= owner.fullDepthMoves
+					&& lookAheadDepth >= owner.reductionDepth && !inCheck
+					&& isQuiet(position, moves[next])
+					&& moves[next] != killers[ply][0]
+					&& moves[next] != killers[ply][1];
+
+			position.makeMove(moves[next]);
+			ply++;
+			int reduction = 0;
+			if (reducible && !position.inCheck(1 - color))
+				reduction = Math.min(owner.lateMoveReduction,
+						lookAheadDepth - 2);
+			int score = searchChild(position, alpha, beta, lookAheadDepth - 1,
+					next == 0, reduction);
+			ply--;
+			position.unmakeMove(moves[next]);
+			followPv = false;
+			if (stopped)
+				return 0;
+			if (score >= beta)
+			{
+				statistics.countCutoff(next == 0);
+				recordCutoff(position, moves[next], lookAheadDepth);
+				storeTable(position, moves[next], beta, lookAheadDepth,
+						TranspositionTable.LOWER_BOUND);
+				return beta;
+			}
+			if (score > alpha)
+			{
+				alpha = score;
+				bestMove = moves[next];
+				bound = TranspositionTable.EXACT;
+				updatePrincipalVariation(moves[next]);
+			}
+		}
+
+		// If the side to move cannot move, it is either check mated, which
+		// scores less the more moves it took, or stale mated
+		if (count == 0)
+		{
+			alpha = inCheck ? -MATE_SCORE + ply : 0;
+			bound = TranspositionTable.EXACT;
+		}
+
+		storeTable(position, bestMove, alpha, lookAheadDepth, bound);
+		return alpha;
+	}
+
+	/**
+	 * Searches only the captures (and promotions) of the side to move in the
+	 * given Position until it is quiet. The side to move may also stand pat
+	 * and keep the score of the Position as it is, and captures that cannot
+	 * raise the score near alpha even by winning the captured piece are not
+	 * searched
+	 * @param position the Position to search
+	 * @param alpha the score the side to move is already assured of
+	 * @param beta the score the opponent is already assured of
+	 * @return the score of the Position, for the side to move
+	 */
+	public int quiesce(Position position, int alpha, int beta)
+	{
+		countNode(true);
+		pvLength[ply] = ply;
+		int standPat = Evaluation.evaluateForSideToMove(position);
+		if (standPat >= beta)
+			return beta;
+		if (standPat > alpha)
+			alpha = standPat;
+		if (ply >= MAX_PLY - 1)
+			return alpha;
+
+		int[] moves = moveBuffers[ply];
+		int[] scores = scoreBuffers[ply];
+		int count = position.generateLegalCaptures(moves);
+		hashMove = 0;
+		scoreMoves(position, moves, scores, count);
+
+		for (int next = 0; next < count; next++)
+		{
+			pickNextMove(moves, scores, count, next);
+
+			// Delta pruning: skip captures which cannot raise the score to
+			// alpha even if the captured piece is won for nothing
+			int victim = position.capturedPiece(moves[next]);
+			if (!Position.isPromotion(moves[next])
+					&& standPat + Evaluation.PIECE_VALUES[victim]
+							+ DELTA_MARGIN <= alpha)
+				continue;
+
+			position.makeMove(moves[next]);
+			ply++;
+			int score = -quiesce(position, -beta, -alpha);
+			ply--;
+			position.unmakeMove(moves[next]);
+			if (stopped)
+				return 0;
+			if (score >= beta)
+				return beta;
+			if (score > alpha)
+				alpha = score;
+		}
+
+		return alpha;
+	}
+}
@@ -0,0 +1,415 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps track of the statistics of one search for the best move: the number of
+ * Positions searched (and how many of them were searched only for captures
+ * when quiescing), the number of times an iteration was searched again with a
+ * wider aspiration window, the number of beta cutoffs and how many of them
+ * were caused by the first move searched, the number of transposition table
+ * probes and hits, and the number of Positions searched, the time taken, the
+ * score and the principal variation of each iteration of the iterative
+ * deepening. They are used to tune the difficulty levels of the computer and
+ * to notice when the search becomes slower or orders its moves worse. Includes
+ * methods to reset the statistics, to count each event, to add the statistics
+ * of a helper thread, to end an iteration or the search, to get the score and
+ * principal variation of each iteration, and to get the counts and the rates
+ * derived from them: the nodes per second, the cutoff rates, the table hit
+ * rate and the effective branching factor
+ * @author Siddharth Vaknalli and Sean Marchand
+ * @version Sunday, October 18, 2026
+ */
+public class SearchStatistics
+{
+	// Keep track of the times the search started and finished at in
+	// nanoseconds (0 while it runs) and the number of Positions searched, of
+	// those only searched for captures and of those whose moves were searched
+	private long startTime;
+	private long endTime;
+	private long nodes;
+	private long quiescenceNodes;
+	private long expandedNodes;
+
+	// Keep track of the number of times an iteration was searched again
+	// because its score fell outside of its aspiration window
+	private long researches;
+
+	// Keep track of the number of beta cutoffs, of those caused by the first
+	// move searched, and of the probes and hits of the transposition table
+	private long cutoffs;
+	private long firstMoveCutoffs;
+	private long tableProbes;
+	private long tableHits;
+
+	// Keep track of the deepest iteration completed and the total number of
+	// Positions searched, the time in nanoseconds, the score and the principal
+	// variation at the end of each iteration, indexed by its depth
+	private int completedDepth;
+	private long[] iterationNodes;
+	private long[] iterationTimes;
+	private int[] iterationScores;
+	private int[][] iterationLines;
+
+	/**
+	 * Constructs empty SearchStatistics
+	 */
+	public SearchStatistics()
+	{
+		iterationNodes = new long[Search.MAX_DEPTH + 1];
+		iterationTimes = new long[Search.MAX_DEPTH + 1];
+		iterationScores = new int[Search.MAX_DEPTH + 1];
+		iterationLines = new int[Search.MAX_DEPTH + 1][];
+		iterationLines[0] = new int[0];
+		reset();
+	}
+
+	/**
+	 * Resets all the statistics for a new search starting now
+	 */
+	public void reset()
+	{
+		startTime = System.nanoTime();
+		endTime = 0;
+		nodes = 0;
+		quiescenceNodes = 0;
+		expandedNodes = 0;
+		researches = 0;
+		cutoffs = 0;
+		firstMoveCutoffs = 0;
+		tableProbes = 0;
+		tableHits = 0;
+		completedDepth = 0;
+	}
+
+	/**
+	 * Counts a Position being searched
+	 * @param quiescence true if only its captures are searched, false
+	 *            otherwise
+	 */
+	public void countNode(boolean quiescence)
+	{
+		nodes++;
+		if (quiescence)
+			quiescenceNodes++;
+	}
+
+	/**
+	 * Counts a Position whose moves are searched, because it was not decided
+	 * by the transposition table
+	 */
+	public void countExpandedNode()
+	{
+		expandedNodes++;
+	}
+
+	/**
+	 * Counts an iteration being searched again with a wider aspiration window
+	 */
+	public void countResearch()
+	{
+		researches++;
+	}
+
+	/**
+	 * Counts a beta cutoff
+	 * @param firstMove true if it was caused by the first move searched,
+	 *            false otherwise
+	 */
+	public void countCutoff(boolean firstMove)
+	{
+		cutoffs++;
+		if (firstMove)
+			firstMoveCutoffs++;
+	}
+
+	/**
+	 * Counts a probe of the transposition table
+	 * @param hit true if the Position was found in the table, false
+	 *            otherwise
+	 */
+	public void countProbe(boolean hit)
+	{
+		tableProbes++;
+		if (hit)
+			tableHits++;
+	}
+
+	/**
+	 * Adds the counts of the given statistics of a helper thread to these
+	 * @param other the statistics of the helper
+	 */
+	public void add(SearchStatistics other)
+	{
+		nodes += other.nodes;
+		quiescenceNodes += other.quiescenceNodes;
+		expandedNodes += other.expandedNodes;
+		researches += other.researches;
+		cutoffs += other.cutoffs;
+		firstMoveCutoffs += other.firstMoveCutoffs;
+		tableProbes += other.tableProbes;
+		tableHits += other.tableHits;
+	}
+
+	/**
+	 * Records the end of the iteration of the given depth, which was
+	 * completed, with the score and principal variation it found
+	 * @param depth the depth of the iteration
+	 * @param totalNodes the number of Positions searched by all threads since
+	 *            the search started
+	 * @param score the score of the root, for the side to move
+	 * @param line the array holding the principal variation from its start
+	 * @param length the number of moves of the principal variation
+	 */
+	public void endIteration(int depth, long totalNodes, int score,
+			int[] line, int length)
+	{
+		completedDepth = depth;
+		iterationNodes[depth] = totalNodes;
+		iterationTimes[depth] = System.nanoTime() - startTime;
+		iterationScores[depth] = score;
+		iterationLines[depth] = Arrays.copyOf(line, length);
+	}
+
+	/**
+	 * Records the end of the search, so that its time and nodes per second
+	 * no longer change
+	 */
+	public void finish()
+	{
+		endTime = System.nanoTime();
+	}
+
+	/**
+	 * Gets the time the search has run for, or took if it has finished
+	 * @return the elapsed time in nanoseconds
+	 */
+	private long getElapsedNanos()
+	{
+		return (endTime != 0 ? endTime : System.nanoTime()) - startTime;
+	}
+
+	/**
+	 * Gets the number of Positions searched
+	 * @return the number of nodes
+	 */
+	public long getNodes()
+	{
+		return nodes;
+	}
+
+	/**
+	 * Gets the number of Positions searched only for captures
+	 * @return the number of quiescence nodes
+	 */
+	public long getQuiescenceNodes()
+	{
+		return quiescenceNodes;
+	}
+
+	/**
+	 * Gets the number of times an iteration was searched again because its
+	 * score fell outside of its aspiration window
+	 * @return the number of re-searches
+	 */
+	public long getResearches()
+	{
+		return researches;
+	}
+
+	/**
+	 * Gets the time the search has run for, or took if it has finished
+	 * @return the elapsed time in milliseconds
+	 */
+	public long getElapsedMillis()
+	{
+		return getElapsedNanos() / 1000000;
+	}
+
+	/**
+	 * Gets the number of Positions searched per second
+	 * @return the nodes per second
+	 */
+	public long getNodesPerSecond()
+	{
+		return (long) (nodes * 1e9 / Math.max(1, getElapsedNanos()));
+	}
+
+	/**
+	 * Gets the share of the Positions whose moves were searched that ended
+	 * with a beta cutoff
+	 * @return the beta cutoff rate, from 0 to 1
+	 */
+	public double getCutoffRate()
+	{
+		return expandedNodes == 0 ? 0 : cutoffs / (double) expandedNodes;
+	}
+
+	/**
+	 * Gets the share of the beta cutoffs caused by the first move searched,
+	 * which shows how well the moves are ordered
+	 * @return the first move cutoff rate, from 0 to 1
+	 */
+	public double getFirstMoveCutoffRate()
+	{
+		return cutoffs == 0 ? 0 : firstMoveCutoffs / (double) cutoffs;
+	}
+
+	/**
+	 * Gets the number of probes of the transposition table
+	 * @return the number of probes
+	 */
+	public long getTableProbes()
+	{
+		return tableProbes;
+	}
+
+	/**
+	 * Gets the number of probes of the transposition table that found the
+	 * Position
+	 * @return the number of hits
+	 */
+	public long getTableHits()
+	{
+		return tableHits;
+	}
+
+	/**
+	 * Gets the share of the probes of the transposition table that found the
+	 * Position
+	 * @return the hit rate, from 0 to 1
+	 */
+	public double getTableHitRate()
+	{
+		return tableProbes == 0 ? 0 : tableHits / (double) tableProbes;
+	}
+
+	/**
+	 * Gets the depth of the deepest iteration completed
+	 * @return the completed depth, or 0 if none was completed
+	 */
+	public int getCompletedDepth()
+	{
+		return completedDepth;
+	}
+
+	/**
+	 * Gets the number of Positions searched by all threads from the start of
+	 * the search until the iteration of the given depth was completed
+	 * @param depth the depth of a completed iteration
+	 * @return the number of nodes up to the end of the iteration
+	 */
+	public long getNodesToIteration(int depth)
+	{
+		return iterationNodes[depth];
+	}
+
+	/**
+	 * Gets the number of Positions searched by the iteration of the given
+	 * depth
+	 * @param depth the depth of a completed iteration
+	 * @return the number of nodes of the iteration
+	 */
+	public long getIterationNodes(int depth)
+	{
+		return iterationNodes[depth]
+				- (depth > 1 ? iterationNodes[depth - 1] : 0);
+	}
+
+	/**
+	 * Gets the time taken by the iteration of the given depth
+	 * @param depth the depth of a completed iteration
+	 * @return the time of the iteration in milliseconds
+	 */
+	public long getIterationMillis(int depth)
+	{
+		return (iterationTimes[depth] - (depth > 1 ? iterationTimes[depth - 1]
+				: 0)) / 1000000;
+	}
+
+	/**
+	 * Gets the score found by the iteration of the given depth
+	 * @param depth the depth of a completed iteration, or 0 if none was
+	 *            completed
+	 * @return the score of the root, for the side to move
+	 */
+	public int getIterationScore(int depth)
+	{
+		return iterationScores[depth];
+	}
+
+	/**
+	 * Gets the principal variation found by the iteration of the given depth:
+	 * its best move followed by the best replies of both sides
+	 * @param depth the depth of a completed iteration, or 0 if none was
+	 *            completed
+	 * @return the moves of the principal variation (empty if none was
+	 *         completed)
+	 */
+	public List<Integer> getIterationPrincipalVariation(int depth)
+	{
+		List<Integer> moves = new ArrayList<Integer>();
+		for (int move : iterationLines[depth])
+			moves.add(move);
+		return moves;
+	}
+
+	/**
+	 * Returns the principal variation found by the iteration of the given
+	 * depth as text, in the notation of the Universal Chess Interface
+	 * @param depth the depth of a completed iteration, or 0 if none was
+	 *            completed
+	 * @return the moves of the principal variation separated by spaces
+	 */
+	public String principalVariationToString(int depth)
+	{
+		StringBuilder text = new StringBuilder();
+		for (int move : iterationLines[depth])
+			text.append(text.length() == 0 ? "" : " ").append(
+					Position.moveToString(move));
+		return text.toString();
+	}
+
+	/**
+	 * Gets the effective branching factor: how many times more Positions the
+	 * deepest completed iteration searched than the one before it
+	 * @return the effective branching factor, or 0 if fewer than two
+	 *         iterations were completed
+	 */
+	public double getEffectiveBranchingFactor()
+	{
+		if (completedDepth < 2 || getIterationNodes(completedDepth - 1) == 0)
+			return 0;
+		return getIterationNodes(completedDepth)
+				/ (double) getIterationNodes(completedDepth - 1);
+	}
+
+	/**
+	 * Returns the statistics of the iteration of the given depth as a line
+	 * of text
+	 * @param depth the depth of a completed iteration
+	 * @return the statistics of the iteration
+	 */
+	public String iterationToString(int depth)
+	{
+		return String.format("depth %d: score %d, %d nodes in %d ms, pv %s",
+				depth, iterationScores[depth], getIterationNodes(depth),
+				getIterationMillis(depth), principalVariationToString(depth));
+	}
+
+	/**
+	 * Returns a summary of these statistics as a line of text
+	 * @return the summary of the statistics
+	 */
+	public String toString()
+	{
+		return String.format("depth %d, %d nodes (%d quiescence), %d nps, "
+				+ "%d re-searches, %.1f%% cutoffs, %.1f%% on first move, "
+				+ "%d probes (%.1f%% hits), branching factor %.2f, %d ms",
+				completedDepth, nodes, quiescenceNodes, getNodesPerSecond(),
+				researches,
+				getCutoffRate() * 100, getFirstMoveCutoffRate() * 100,
+				tableProbes, getTableHitRate() * 100,
+				getEffectiveBranchingFactor(), getElapsedMillis());
+	}
+}
@@ -21,12 +21,23 @@ public class Square extends Rectangle
 	// Keep track of the constant side dimension of all Square objects and the
 	// highlighted/selected images
 	public final static int SIDE = 65;
+
+	// Keep track of the offsets of the Knight moves and of the directions of
+	// the lines (rows, columns and diagonals) from a Square
+	private static final int[] KNIGHT_ROW = { -2, -2, -1, -1, 1, 1, 2, 2 };
+	private static final int[] KNIGHT_COL = { -1, 1, -2, 2, -2, 2, -1, 1 };
+	private static final int[] LINE_ROW = { 0, -1, -1, -1, 0, 1, 1, 1 };
+	private static final int[] LINE_COL = { -1, -1, 0, 1, 1, 1, 0, -1 };
 	private final static Image HIGHLIGHTED_IMAGE = new ImageIcon(
 			"Temp\\Yellow.png").getImage();
 	private final static Image HIGHLIGHTED_PIECE = new ImageIcon(
 			"Temp\\Red.png").getImage();
 	private final static Image SELECTED_IMAGE = new ImageIcon(
 			"Temp\\Selected.png").getImage();
+	private final static Image WHITE_IMAGE = new ImageIcon(
+			"Temp\\White.png").getImage();
+	private final static Image BROWN_IMAGE = new ImageIcon(
+			"Temp\\Brown.png").getImage();
 
 	// Keep track of the row, column, color, piece, image and other boolean
 	// variables for this Square object
@@ -64,9 +75,9 @@ public class Square extends Rectangle
 		// Set the image of this Square (black or white) according to the color
 		// given
 		if (color == 0)
-			image = new ImageIcon("Temp\\White.png").getImage();
+			image = WHITE_IMAGE;
 		else
-			image = new ImageIcon("Temp\\Brown.png").getImage();
+			image = BROWN_IMAGE;
 
 		// This Square is not highlighted or selected initially
 		isHighlighted = false;
@@ -224,49 +235,95 @@ public class Square extends Rectangle
 	 */
 	public boolean threatenSquare(int team, Square[][] board)
 	{
-		// Going through the board
-		for (int row = 0; row < board.length; row++)
+		return threatenSquare(team, board, null);
+	}
+
+	/**
+	 * Checks if a Square can be attacked by an opponent of the given team,
+	 * treating the given Square as empty. Looks outward from this Square for
+	 * Knights, and along each line for the first piece in the way, instead of
+	 * generating the moves of every opponent piece on the board
+	 * 
+	 * @param team the team that the piece is on
+	 * @param board the ArrayList of Squares used to play the game
+	 * @param ignore a Square whose piece does not block attacks (such as the
+	 *            Square a King moves from), or null
+	 * @return true if the Square is under attack, false if not
+	 */
+	public boolean threatenSquare(int team, Square[][] board, Square ignore)
+	{
+		// Check for opponent Knights a Knight's move away
+		for (int next = 0; next < KNIGHT_ROW.length; next++)
 		{
-			for (int col = 0; col < board[row].length; col++)
+			int checkRow = row + KNIGHT_ROW[next];
+			int checkCol = column + KNIGHT_COL[next];
+			if (checkRow >= 0 && checkRow < board.length && checkCol >= 0
+					&& checkCol < board[checkRow].length)
 			{
-				// If the sqaure we are checking contains a piece and it is not
-				// on your team
-				if (board[row][col].containsPiece())
-				{
-					if (board[row][col].piece.color != team)
-					{
-						// If the piece is not a King or Rook
-						if ((!(board[row][col].piece instanceof King) && !(board[row][col].piece instanceof Rook))
-								|| board[row][col].piece.color == team)
-						{
-							// Generating moves with that piece to see if they
-							// attack this Square
-							ArrayList<Square> moves = board[row][col].piece
-									.generateMoves(board);
-							if (moves.contains(this))
-							{
-								for (int rows = 0; rows < board.length; rows++)
-								{
-									for (int column = 0; column < board[rows].length; column++)
-									{
-										board[rows][column].unhighlight();
-									}
-								}
-								return true;
-							}
-						}
-					}
-				}
+				Piece knight = board[checkRow][checkCol].piece;
+				if (knight instanceof Knight && knight.color != team)
+					return true;
 			}
 		}
-		// Unhighlighting the board
-		for (int rows = 0; rows < board.length; rows++)
+
+		// Go along each line from this Square until the first piece in the
+		// way, and check whether it is an opponent piece attacking this Square
+		for (int direction = 0; direction < LINE_ROW.length; direction++)
 		{
-			for (int column = 0; column < board[rows].length; column++)
+			int checkRow = row + LINE_ROW[direction];
+			int checkCol = column + LINE_COL[direction];
+			boolean nextTo = true;
+			while (checkRow >= 0 && checkRow < board.length && checkCol >= 0
+					&& checkCol < board[checkRow].length)
 			{
-				board[rows][column].unhighlight();
+				Square check = board[checkRow][checkCol];
+				if (check != ignore && check.containsPiece())
+				{
+					if (check.piece.color != team
+							&& attacksAlong(check.piece, direction, nextTo))
+						return true;
+					break;
+				}
+				checkRow += LINE_ROW[direction];
+				checkCol += LINE_COL[direction];
+				nextTo = false;
 			}
 		}
+
+		return false;
+	}
+
+	/**
+	 * Checks whether the given Piece, found first along a line from a Square,
+	 * attacks that Square
+	 * 
+	 * @param attacker the Piece found along the line
+	 * @param direction the index of the direction of the line
+	 * @param nextTo whether the Piece is right next to the Square
+	 * @return true if the Piece attacks the Square, false otherwise
+	 */
+	private static boolean attacksAlong(Piece attacker, int direction,
+			boolean nextTo)
+	{
+		boolean diagonal = LINE_ROW[direction] != 0 && LINE_COL[direction] != 0;
+
+		// Queens attack along every line, Bishops along the diagonals and Rooks
+		// along the rows and columns
+		if (attacker instanceof Queen)
+			return true;
+		if (attacker instanceof Bishop || attacker instanceof Rook)
+			return diagonal == (attacker instanceof Bishop);
+
+		// Kings attack the Squares next to them, and Pawns the Squares
+		// diagonally ahead of them (up the board for the Pawns on the bottom
+		// side, down the board for those on the opposite side)
+		if (attacker instanceof King)
+			return nextTo;
+		if (attacker instanceof Pawn)
+		{
+			int ahead = ((Pawn) attacker).onOppositeSide ? 1 : -1;
+			return nextTo && diagonal && LINE_ROW[direction] == -ahead;
+		}
 		return false;
 	}
 
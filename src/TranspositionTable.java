@@ -0,0 +1,162 @@
+import java.util.Arrays;
+
+/**
+ * Keeps track of a fixed size transposition table for the computer's search in
+ * a game of Chess, so that Positions reached again through a different order
+ * of moves do not have to be searched again. Each entry uses two longs of a
+ * primitive array: the Zobrist key of the Position, and its score, best move,
+ * search depth, type of bound and the search it was stored in, packed
+ * together. When two Positions share a slot, the one searched deeper is kept,
+ * unless it is left over from an earlier search. Several threads can share the
+ * table without taking locks: the key is stored exclusive ored with the data,
+ * so an entry torn by two threads writing it at once no longer matches its key
+ * and is never found, and a probe returns the packed data of the entry rather
+ * than keeping it in the table. Includes methods to construct a table of a
+ * given size in megabytes, to clear it, to store and probe entries and to read
+ * the fields of the data of an entry
+ * @author Siddharth Vaknalli and Sean Marchand
+ * @version Sunday, October 18, 2026
+ */
+public class TranspositionTable
+{
+	// Types of bound of a stored score: the exact score, a lower bound (the
+	// search failed high) or an upper bound (the search failed low)
+	public static final int EXACT = 0;
+	public static final int LOWER_BOUND = 1;
+	public static final int UPPER_BOUND = 2;
+
+	// The size of an entry in bytes. The data of an entry holds the score in
+	// bits 0 to 31, the best move in bits 32 to 51, the depth in bits 52 to
+	// 58, a bit set for every stored entry, the bound in bits 60 and 61 and
+	// the search it was stored in in bits 62 and 63
+	private static final int ENTRY_BYTES = 16;
+
+	// The most entries a table can have, so that the two longs of each still
+	// fit in one array (8 gigabytes)
+	private static final int MAX_SLOTS = 1 << 29;
+
+	// Keep track of the entries, two longs each, the mask used to find the
+	// slot of a key and the current search
+	private long[] entries;
+	private int mask;
+	private int generation;
+
+	/**
+	 * Constructs a TranspositionTable using at most the given number of
+	 * megabytes, rounded down to a power of two number of entries and to at
+	 * most MAX_SLOTS entries
+	 * @param megabytes the size of the table in megabytes
+	 */
+	public TranspositionTable(int megabytes)
+	{
+		long bytes = Math.max(1, megabytes) * 1024L * 1024L;
+		int slots = Integer.highestOneBit((int) Math.min(bytes / ENTRY_BYTES,
+				MAX_SLOTS));
+		entries = new long[slots * 2];
+		mask = slots - 1;
+		generation = 0;
+	}
+
+	/**
+	 * Removes all the entries from this table
+	 */
+	public void clear()
+	{
+		Arrays.fill(entries, 0L);
+		generation = 0;
+	}
+
+	/**
+	 * Starts a new search, so that the entries stored by earlier searches can
+	 * be replaced by shallower ones
+	 */
+	public void newSearch()
+	{
+		generation = (generation + 1) & 3;
+	}
+
+	/**
+	 * Looks up the entry of the Position with the given key. If one is found,
+	 * its fields can be read from its data with the getters of this class
+	 * @param key the Zobrist key of the Position
+	 * @return the data of the entry of the Position, or 0 if none is found
+	 */
+	public long probe(long key)
+	{
+		int index = ((int) key & mask) << 1;
+		long data = entries[index + 1];
+		if ((entries[index] ^ data) != key)
+			return 0L;
+		return data;
+	}
+
+	/**
+	 * Stores the result of searching the Position with the given key, unless
+	 * its slot holds a deeper search of another Position from this search
+	 * @param key the Zobrist key of the Position
+	 * @param move the best move found, or 0 if there is none
+	 * @param score the score of the Position
+	 * @param depth the number of moves that were looked ahead
+	 * @param bound the type of bound of the score
+	 */
+	public void store(long key, int move, int score, int depth, int bound)
+	{
+		int index = ((int) key & mask) << 1;
+		long stored = entries[index + 1];
+		long storedKey = entries[index] ^ stored;
+		if (stored != 0L && storedKey != key
+				&& ((stored >>> 62) & 3) == generation
+				&& ((stored >>> 52) & 0x7F) > depth)
+			return;
+
+		// Keep the best move already stored for this Position if none is given
+		if (move == 0 && storedKey == key)
+			move = (int) ((stored >>> 32) & 0xFFFFF);
+
+		long data = (score & 0xFFFFFFFFL) | ((long) (move & 0xFFFFF) << 32)
+				| ((long) (depth & 0x7F) << 52) | ((long) bound << 60)
+				| ((long) generation << 62) | (1L << 59);
+		entries[index] = key ^ data;
+		entries[index + 1] = data;
+	}
+
+	/**
+	 * Gets the best move of an entry found by a probe
+	 * @param data the data of the entry
+	 * @return the best move, or 0 if there is none
+	 */
+	public static int getMove(long data)
+	{
+		return (int) ((data >>> 32) & 0xFFFFF);
+	}
+
+	/**
+	 * Gets the score of an entry found by a probe
+	 * @param data the data of the entry
+	 * @return the score
+	 */
+	public static int getScore(long data)
+	{
+		return (int) data;
+	}
+
+	/**
+	 * Gets the depth of an entry found by a probe
+	 * @param data the data of the entry
+	 * @return the number of moves that were looked ahead
+	 */
+	public static int getDepth(long data)
+	{
+		return (int) ((data >>> 52) & 0x7F);
+	}
+
+	/**
+	 * Gets the type of bound of an entry found by a probe
+	 * @param data the data of the entry
+	 * @return EXACT, LOWER_BOUND or UPPER_BOUND
+	 */
+	public static int getBound(long data)
+	{
+		return (int) ((data >>> 60) & 3);
+	}
+}
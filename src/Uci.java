@@ -0,0 +1,469 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps track of a driver for the Universal Chess Interface (UCI), so that the
+ * engine can be played by Chess GUIs and tournament managers through standard
+ * input and output instead of the Swing window. It runs the same search as
+ * the computer player of the Board, through a headless Engine. A search
+ * started with go infinite or go ponder only reports its best move once it is
+ * stopped or the pondered move is played, as the protocol requires. Includes
+ * methods to run the driver on standard input and output, to read and answer
+ * each command, and to set up positions, start searches and report their
+ * best moves. Options set while a search is running are only applied before
+ * the next search starts, since the Search must not change while it runs
+ * @author Siddharth Vaknalli and Sean Marchand
+ * @version Sunday, October 18, 2026
+ */
+public class Uci
+{
+	// The name and authors of the engine
+	private static final String NAME = "Ultimate Chess";
+	private static final String AUTHORS = "Siddharth Vaknalli and Sean Marchand";
+
+	// The default, smallest and largest sizes of the transposition table in
+	// megabytes and numbers of search threads
+	private static final int DEFAULT_HASH_MB = 16;
+	private static final int MIN_HASH_MB = 1;
+	private static final int MAX_HASH_MB = 1024;
+	private static final int DEFAULT_THREADS = 1;
+	private static final int MIN_THREADS = 1;
+	private static final int MAX_THREADS = 64;
+
+	// The largest numbers of moves the search may look ahead less after a
+	// null move and for a late move, for tuning
+	private static final int MAX_NULL_MOVE_REDUCTION = 4;
+	private static final int MAX_LATE_MOVE_REDUCTION = 3;
+
+	// The time in milliseconds kept aside for sending each move, and the
+	// number of moves the remaining time is shared between when the GUI does
+	// not say how many are left until the next time control
+	private static final long MOVE_OVERHEAD = 50;
+	private static final int DEFAULT_MOVES_TO_GO = 30;
+
+	// The limits of a go command that are followed by a number (others, such
+	// as nodes and searchmoves, are not supported and are ignored)
+	private static final List<String> NUMERIC_LIMITS = Arrays.asList("depth",
+			"movetime", "wtime", "btime", "winc", "binc", "movestogo");
+
+	// Keep track of the engine searching the positions and the stream the
+	// answers are written to
+	private Engine engine;
+	private PrintStream out;
+
+	// Keep track of whether a search has been started whose best move has not
+	// been reported, whether it must wait to be stopped (or for the pondered
+	// move to be played) before reporting it, the best move it found if it
+	// finished while waiting, and the time it is given once the pondered move
+	// is played
+	private boolean searching;
+	private boolean waitingForStop;
+	private boolean moveFound;
+	private int foundMove;
+	private long ponderTime;
+
+	// Keep track of the setoption commands received while a search was
+	// running, to be applied before the next search starts
+	private List<String[]> deferredOptions;
+
+	/**
+	 * Runs the UCI driver on standard input and output
+	 * @param args the arguments of the program (not used)
+	 * @throws IOException if standard input cannot be read
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		new Uci(System.out).run(new BufferedReader(new InputStreamReader(
+				System.in)));
+	}
+
+	/**
+	 * Constructs a Uci driver writing its answers to the given stream, with
+	 * an Engine of the default hash size and number of threads
+	 * @param out the stream to write the answers to
+	 */
+	public Uci(PrintStream out)
+	{
+		this.out = out;
+		engine = new Engine(DEFAULT_HASH_MB, DEFAULT_THREADS, true);
+		searching = false;
+		waitingForStop = false;
+		moveFound = false;
+		deferredOptions = new ArrayList<String[]>();
+		engine.getSearch().setIterationListener(new Search.IterationListener()
+		{
+			@Override
+			public void iterationCompleted(SearchStatistics statistics,
+					int depth)
+			{
+				sendIteration(statistics, depth);
+			}
+		});
+	}
+
+	/**
+	 * Reads and answers commands from the given reader until it is closed or
+	 * the quit command is read
+	 * @param in the reader to read the commands from
+	 * @throws IOException if the commands cannot be read
+	 */
+	public void run(BufferedReader in) throws IOException
+	{
+		String line;
+		while ((line = in.readLine()) != null)
+		{
+			String[] tokens = line.trim().split("\\s+");
+			String command = tokens[0];
+			if (command.equals("quit"))
+				break;
+			else if (command.equals("uci"))
+				identify();
+			else if (command.equals("isready"))
+				send("readyok");
+			else if (command.equals("ucinewgame"))
+				engine.newGame();
+			else if (command.equals("setoption"))
+				setOption(tokens);
+			else if (command.equals("position"))
+				setPosition(tokens);
+			else if (command.equals("go"))
+				go(tokens);
+			else if (command.equals("stop"))
+				stop();
+			else if (command.equals("ponderhit"))
+				ponderHit();
+		}
+		engine.stopSearch();
+	}
+
+	/**
+	 * Sends the name and authors of the engine and the options it supports
+	 */
+	private void identify()
+	{
+		send("id name " + NAME);
+		send("id author " + AUTHORS);
+		send("option name Hash type spin default " + DEFAULT_HASH_MB + " min "
+				+ MIN_HASH_MB + " max " + MAX_HASH_MB);
+		send("option name Threads type spin default " + DEFAULT_THREADS
+				+ " min " + MIN_THREADS + " max " + MAX_THREADS);
+		send("option name Ponder type check default false");
+		send("option name NullMoveReduction type spin default "
+				+ Search.DEFAULT_NULL_MOVE_REDUCTION + " min 0 max "
+				+ MAX_NULL_MOVE_REDUCTION);
+		send("option name LateMoveReduction type spin default "
+				+ Search.DEFAULT_LATE_MOVE_REDUCTION + " min 0 max "
+				+ MAX_LATE_MOVE_REDUCTION);
+		send("uciok");
+	}
+
+	/**
+	 * Sets the Hash, Threads, NullMoveReduction or LateMoveReduction option
+	 * given by a setoption command, such as setoption name Hash value 64.
+	 * Other options are ignored. If a search is running, the option is
+	 * applied before the next search starts instead
+	 * @param tokens the words of the command
+	 */
+	private void setOption(String[] tokens)
+	{
+		synchronized (this)
+		{
+			if (searching)
+			{
+				deferredOptions.add(tokens);
+				return;
+			}
+		}
+
+		// The name of the option is given between the words name and value
+		String name = "";
+		String value = "";
+		int next = 1;
+		if (next < tokens.length && tokens[next].equals("name"))
+			for (next++; next < tokens.length
+					&& !tokens[next].equals("value"); next++)
+				name += (name.isEmpty() ? "" : " ") + tokens[next];
+		if (next < tokens.length - 1)
+			value = tokens[next + 1];
+
+		try
+		{
+			if (name.equalsIgnoreCase("Hash"))
+				engine.getSearch().setHashSize(Math.max(MIN_HASH_MB,
+						Math.min(MAX_HASH_MB, Integer.parseInt(value))));
+			else if (name.equalsIgnoreCase("Threads"))
+				engine.getSearch().setThreads(Math.max(MIN_THREADS,
+						Math.min(MAX_THREADS, Integer.parseInt(value))));
+			else if (name.equalsIgnoreCase("NullMoveReduction"))
+				engine.getSearch().setNullMoveReduction(Math.max(0, Math.min(
+						MAX_NULL_MOVE_REDUCTION, Integer.parseInt(value))));
+			else if (name.equalsIgnoreCase("LateMoveReduction"))
+				engine.getSearch().setLateMoveReductions(
+						Search.DEFAULT_FULL_DEPTH_MOVES,
+						Search.DEFAULT_REDUCTION_DEPTH, Math.max(0, Math.min(
+								MAX_LATE_MOVE_REDUCTION,
+								Integer.parseInt(value))));
+		}
+		catch (NumberFormatException e)
+		{
+			send("info string invalid value " + value + " for " + name);
+		}
+	}
+
+	/**
+	 * Sets up the Position given by a position command, either the starting
+	 * Position or one given in Forsyth-Edwards Notation, and plays the moves
+	 * given after it
+	 * @param tokens the words of the command
+	 */
+	private void setPosition(String[] tokens)
+	{
+		Position position = engine.getPosition();
+		int next = 1;
+		try
+		{
+			if (next < tokens.length && tokens[next].equals("startpos"))
+			{
+				position.setStartingPosition();
+				next++;
+			}
+			else if (next < tokens.length && tokens[next].equals("fen"))
+			{
+				StringBuilder fen = new StringBuilder();
+				for (next++; next < tokens.length
+						&& !tokens[next].equals("moves"); next++)
+					fen.append(tokens[next]).append(' ');
+				position.setFen(fen.toString());
+			}
+		}
+		catch (IllegalArgumentException e)
+		{
+			send("info string " + e.getMessage());
+			position.setStartingPosition();
+			return;
+		}
+
+		// Play each move after the word moves, stopping at the first one that
+		// is not legal
+		if (next < tokens.length && tokens[next].equals("moves"))
+			for (next++; next < tokens.length; next++)
+			{
+				int move = position.parseMove(tokens[next]);
+				if (move == 0)
+				{
+					send("info string illegal move " + tokens[next]);
+					break;
+				}
+				position.makeMove(move);
+
+				// The moves of the game are never unmade, so they are
+				// forgotten to keep the undo stack from filling up
+				position.clearHistory();
+			}
+	}
+
+	/**
+	 * Starts searching the current Position for a go command, with the depth
+	 * and time limits it gives. The time for the move is the time given by
+	 * movetime, or else a share of the remaining time of the side to move
+	 * and its increment. Without either, or with infinite or ponder, the
+	 * search runs until it is stopped or reaches the given depth
+	 * @param tokens the words of the command
+	 */
+	private void go(String[] tokens)
+	{
+		int maxDepth = Search.MAX_DEPTH;
+		long moveTime = -1;
+		long[] times = { -1, -1 };
+		long[] increments = { 0, 0 };
+		int movesToGo = DEFAULT_MOVES_TO_GO;
+		boolean infinite = false;
+		boolean ponder = false;
+		try
+		{
+			for (int next = 1; next < tokens.length; next++)
+			{
+				String word = tokens[next];
+				if (word.equals("infinite"))
+					infinite = true;
+				else if (word.equals("ponder"))
+					ponder = true;
+				else if (next + 1 < tokens.length
+						&& NUMERIC_LIMITS.contains(word))
+				{
+					long value = Long.parseLong(tokens[++next]);
+					if (word.equals("depth"))
+						maxDepth = (int) Math.max(1,
+								Math.min(Search.MAX_DEPTH, value));
+					else if (word.equals("movetime"))
+						moveTime = value;
+					else if (word.equals("wtime"))
+						times[Position.WHITE] = value;
+					else if (word.equals("btime"))
+						times[Position.BLACK] = value;
+					else if (word.equals("winc"))
+						increments[Position.WHITE] = value;
+					else if (word.equals("binc"))
+						increments[Position.BLACK] = value;
+					else
+						movesToGo = (int) Math.max(1, value);
+				}
+			}
+		}
+		catch (NumberFormatException e)
+		{
+			send("info string invalid go command");
+			return;
+		}
+
+		// Share the remaining time of the side to move between the moves left
+		// until the next time control, adding most of the increment, but never
+		// use more than the time remaining
+		int color = engine.getPosition().getSideToMove();
+		if (moveTime < 0 && times[color] >= 0)
+			moveTime = Math.max(1, Math.min(times[color] / movesToGo
+					+ increments[color] * 3 / 4, times[color]
+					- MOVE_OVERHEAD));
+		if (moveTime < 0)
+			moveTime = Search.INFINITE_TIME;
+
+		// Finish any search still running, reporting its best move, and apply
+		// the options set while it ran
+		engine.stopSearch();
+		stop();
+		List<String[]> options = new ArrayList<String[]>(deferredOptions);
+		deferredOptions.clear();
+		for (String[] option : options)
+			setOption(option);
+
+		synchronized (this)
+		{
+			searching = true;
+			moveFound = false;
+			waitingForStop = infinite || ponder;
+			ponderTime = moveTime;
+		}
+		engine.startSearch(maxDepth, infinite || ponder ? Search.INFINITE_TIME
+				: moveTime, new Engine.SearchListener()
+		{
+			@Override
+			public void bestMoveFound(int bestMove)
+			{
+				finishSearch(bestMove);
+			}
+		});
+	}
+
+	/**
+	 * Sends the depth, score, number of Positions searched, time and
+	 * principal variation of an iteration completed by the running search,
+	 * so that the GUI can show the search as it deepens
+	 * @param statistics the statistics of the search
+	 * @param depth the depth of the completed iteration
+	 */
+	private void sendIteration(SearchStatistics statistics, int depth)
+	{
+		long nodes = statistics.getNodesToIteration(depth);
+		long time = statistics.getElapsedMillis();
+		String line = statistics.principalVariationToString(depth);
+		send("info depth " + depth + " score "
+				+ scoreToString(statistics.getIterationScore(depth)) + " nodes "
+				+ nodes + " nps " + nodes * 1000 / Math.max(1, time) + " time "
+				+ time + (line.isEmpty() ? "" : " pv " + line));
+	}
+
+	/**
+	 * Reports the best move of a finished search, unless it must wait to be
+	 * stopped or for the pondered move to be played. The number of Positions
+	 * searched by all its threads is sent first
+	 * @param bestMove the best move found, or 0 if there is none
+	 */
+	private synchronized void finishSearch(int bestMove)
+	{
+		if (!searching)
+			return;
+		SearchStatistics statistics = engine.getSearch().getStatistics();
+		send("info nodes " + statistics.getNodes() + " nps "
+				+ statistics.getNodesPerSecond() + " time "
+				+ statistics.getElapsedMillis());
+		if (waitingForStop)
+		{
+			foundMove = bestMove;
+			moveFound = true;
+		}
+		else
+			sendBestMove(bestMove);
+	}
+
+	/**
+	 * Converts a score of the search to a score of an info line: either in
+	 * centipawns or, for a mate score, in the moves until the mate (negative
+	 * if the engine is being mated)
+	 * @param score the score, for the side to move
+	 * @return the score as cp or mate followed by its value
+	 */
+	private static String scoreToString(int score)
+	{
+		if (Math.abs(score) <= Search.MATE_BOUND)
+			return "cp " + score;
+		int moves = (Search.MATE_SCORE - Math.abs(score) + 1) / 2;
+		return "mate " + (score > 0 ? moves : -moves);
+	}
+
+	/**
+	 * Stops the search for a stop command, reporting its best move at once
+	 * if it has already finished
+	 */
+	private synchronized void stop()
+	{
+		if (!searching)
+			return;
+		waitingForStop = false;
+		if (moveFound)
+			sendBestMove(foundMove);
+		else
+			engine.getSearch().stop();
+	}
+
+	/**
+	 * Lets the search go on as a normal search with the time of the go
+	 * command when the pondered move has been played, reporting its best move
+	 * at once if it has already finished
+	 */
+	private synchronized void ponderHit()
+	{
+		if (!searching)
+			return;
+		waitingForStop = false;
+		if (moveFound)
+			sendBestMove(foundMove);
+		else
+			engine.getSearch().setMoveTime(ponderTime);
+	}
+
+	/**
+	 * Sends the best move of the search, which has finished
+	 * @param bestMove the best move found, or 0 if there is none
+	 */
+	private synchronized void sendBestMove(int bestMove)
+	{
+		searching = false;
+		moveFound = false;
+		send("bestmove " + Position.moveToString(bestMove));
+	}
+
+	/**
+	 * Sends the given line to the GUI
+	 * @param line the line to send
+	 */
+	private synchronized void send(String line)
+	{
+		out.println(line);
+		out.flush();
+	}
+}
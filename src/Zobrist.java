@@ -0,0 +1,43 @@
+import java.util.Random;
+
+/**
+ * Keeps track of the random keys used to hash a Position in a game of Chess.
+ * The key of a Position is the exclusive or of the keys of each piece on its
+ * Square, of the castling rights, of the column of the en passant Square and
+ * of the side to move, so it can be updated incrementally as moves are made
+ * and unmade
+ * @author Siddharth Vaknalli and Sean Marchand
+ * @version Sunday, October 18, 2026
+ */
+public final class Zobrist
+{
+	// Keys of each color and type of piece on each Square, of each combination
+	// of castling rights, of each column of the en passant Square and of black
+	// being the side to move
+	public static final long[][][] PIECE_KEYS = new long[2][6][64];
+	public static final long[] CASTLING_KEYS = new long[16];
+	public static final long[] EN_PASSANT_KEYS = new long[8];
+	public static final long SIDE_KEY;
+
+	static
+	{
+		// Use a fixed seed so that keys are the same every time the game runs
+		Random random = new Random(0x5EED0FC4E55L);
+		for (int color = 0; color < 2; color++)
+			for (int type = 0; type < 6; type++)
+				for (int square = 0; square < 64; square++)
+					PIECE_KEYS[color][type][square] = random.nextLong();
+		for (int rights = 0; rights < 16; rights++)
+			CASTLING_KEYS[rights] = random.nextLong();
+		for (int column = 0; column < 8; column++)
+			EN_PASSANT_KEYS[column] = random.nextLong();
+		SIDE_KEY = random.nextLong();
+	}
+
+	/**
+	 * Zobrist is a holder of static keys and cannot be constructed
+	 */
+	private Zobrist()
+	{
+	}
+}